@@ -0,0 +1,109 @@
+package lk.ijse.dep.bench;
+
+import lk.ijse.dep.service.BatchScanner;
+import lk.ijse.dep.service.Board;
+import lk.ijse.dep.service.Piece;
+import lk.ijse.dep.service.Position;
+import lk.ijse.dep.service.ScalarBatchScanner;
+import lk.ijse.dep.vector.VectorBatchScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Status and legal moves of a batch of positions: one {@link Position} per board, which is what
+ * BoardImpl.findWinner() costs per board, against the scalar and the Vector API {@link BatchScanner}.
+ * The positions are random games of 0 to 30 moves, the same ones on every run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class BatchScannerBenchmark {
+
+    @Param({"1024", "65536"})
+    private int size;
+
+    private long[] blue;
+    private long[] green;
+    private byte[] out;
+    private final BatchScanner scalar = new ScalarBatchScanner();
+    private final BatchScanner vector = new VectorBatchScanner();
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        blue = new long[size];
+        green = new long[size];
+        out = new byte[size];
+        for (int i = 0; i < size; i++) {
+            Position position = Position.EMPTY;
+            int moves = random.nextInt(31);
+            while (moves-- > 0 && !position.isTerminal()) {
+                int legal = position.legalMoves();
+                int col;
+                do {
+                    col = random.nextInt(Board.NUM_OF_COLS);
+                } while ((legal & (1 << col)) == 0);
+                position = position.withMove(col);
+            }
+            blue[i] = position.getBits(Piece.BLUE);
+            green[i] = position.getBits(Piece.GREEN);
+        }
+    }
+
+    @Benchmark
+    public byte[] statusPerPosition() {
+        for (int i = 0; i < size; i++) {
+            Position position = Position.of(blue[i], green[i]);
+            byte status = position.winner().code();
+            out[i] = status == Piece.EMPTY_CODE && position.isTerminal() ? BatchScanner.DRAW : status;
+        }
+        return out;
+    }
+
+    @Benchmark
+    public byte[] statusScalar() {
+        scalar.status(blue, green, size, out);
+        return out;
+    }
+
+    @Benchmark
+    public byte[] statusVector() {
+        vector.status(blue, green, size, out);
+        return out;
+    }
+
+    @Benchmark
+    public byte[] legalMovesPerPosition() {
+        for (int i = 0; i < size; i++) {
+            out[i] = (byte) Position.of(blue[i], green[i]).legalMoves();
+        }
+        return out;
+    }
+
+    @Benchmark
+    public byte[] legalMovesScalar() {
+        scalar.legalMoves(blue, green, size, out);
+        return out;
+    }
+
+    @Benchmark
+    public byte[] legalMovesVector() {
+        vector.legalMoves(blue, green, size, out);
+        return out;
+    }
+}
@@ -0,0 +1,58 @@
+package lk.ijse.dep.bench;
+
+import lk.ijse.dep.service.Board;
+import lk.ijse.dep.service.BoardImpl;
+import lk.ijse.dep.service.Piece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the UI asks of BoardImpl during a game: the corpus games replayed move by move on a new board, looking
+ * for a winner and a legal move after every move. Tracked by the {@link RegressionGate}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    private int[][] games;
+
+    @Setup
+    public void setUp() {
+        List<String> corpus = Corpus.games();
+        games = new int[corpus.size()][];
+        for (int i = 0; i < games.length; i++) {
+            games[i] = corpus.get(i).chars().map(c -> c - '0').toArray();
+        }
+    }
+
+    @Benchmark
+    public int replayGames() {
+        int found = 0;
+        for (int[] game : games) {
+            Board board = new BoardImpl(null);
+            Piece piece = Piece.BLUE;
+            for (int col : game) {
+                board.updateMove(col, piece);
+                if (board.findWinner().getWinningPiece() != Piece.EMPTY) found++;
+                if (board.existLegalMoves()) found++;
+                piece = piece == Piece.BLUE ? Piece.GREEN : Piece.BLUE;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,52 @@
+package lk.ijse.dep.bench;
+
+import lk.ijse.dep.service.Position;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The fixed positions the regression benchmarks run on, read from corpus.txt: one position per line as the
+ * columns played from the empty board, lines starting with # are comments.
+ */
+final class Corpus {
+
+    //Number of positions, for the benchmarks that report per position
+    static final int SIZE = 15;
+
+    private Corpus() {
+    }
+
+    static List<String> games() {
+        try (InputStream in = Corpus.class.getResourceAsStream("/corpus.txt")) {
+            if (in == null) throw new IllegalStateException("corpus.txt is missing from the class path");
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            List<String> games = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) games.add(line);
+            }
+            if (games.size() != SIZE) throw new IllegalStateException("corpus.txt holds " + games.size() + " positions, not " + SIZE);
+            return games;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<Position> positions() {
+        List<Position> positions = new ArrayList<>();
+        for (String game : games()) {
+            Position position = Position.EMPTY;
+            for (char c : game.toCharArray()) position = position.withMove(c - '0');
+            positions.add(position);
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,251 @@
+package lk.ijse.dep.bench;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs the regression benchmarks, {@link SearchJmhBenchmark} and {@link BoardBenchmark} by default, writes their
+ * results to --out and compares them with the baseline file. A benchmark regresses when it got worse by more
+ * than --tolerance (10% by default) and the 99.9% confidence intervals of both runs don't overlap, so noise
+ * alone doesn't fail the gate. The comparison is printed as a table; the exit status is 1 when anything regressed.
+ * With --record true the run becomes the new baseline instead.
+ *
+ * Results files are tab separated text: a version line, the JVM and host they were measured on, then one line
+ * per benchmark with its mode, unit, score, error and number of samples. Baselines only mean something on
+ * the machine they were recorded on, the gate warns when the baseline's JVM or host differs from this run's.
+ *
+ * Usage: RegressionGate --baseline &lt;file&gt; [--out file] [--include regex] [--tolerance 0.1] [--record true|false]
+ */
+public class RegressionGate {
+
+    private static final int VERSION = 1;
+    private static final String PACKAGE = "lk.ijse.dep.bench.";
+
+    private Path baseline;
+    private Path out = Paths.get("benchmark-results.tsv");
+    private String include = PACKAGE + "(SearchJmh|Board)Benchmark";
+    private double tolerance = 0.1;
+    private boolean record;
+
+    public static void main(String[] args) throws Exception {
+        RegressionGate gate = new RegressionGate();
+        try {
+            gate.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: RegressionGate --baseline <file> [--out file] [--include regex] [--tolerance 0.1] [--record true|false]");
+            System.exit(2);
+        }
+        System.exit(gate.run());
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) throw new IllegalArgumentException("Missing value for " + args[i]);
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--baseline":
+                    baseline = Paths.get(value);
+                    break;
+                case "--out":
+                    out = Paths.get(value);
+                    break;
+                case "--include":
+                    include = value;
+                    break;
+                case "--tolerance":
+                    tolerance = Double.parseDouble(value);
+                    break;
+                case "--record":
+                    record = Boolean.parseBoolean(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (baseline == null) throw new IllegalArgumentException("Missing --baseline");
+        if (tolerance < 0) throw new IllegalArgumentException("The tolerance can't be negative");
+    }
+
+    private int run() throws IOException, RunnerException {
+        if (!record && Files.notExists(baseline)) {
+            System.err.println("No baseline at " + baseline + ", record one with --record true");
+            return 2;
+        }
+        Map<String, Measurement> current = new LinkedHashMap<>();
+        for (RunResult result : new Runner(new OptionsBuilder().include(include).build()).run()) {
+            String name = name(result.getParams());
+            String mode = result.getParams().getMode().shortLabel();
+            current.put(name, new Measurement(mode, result.getPrimaryResult()));
+            for (Map.Entry<String, Result> secondary : result.getSecondaryResults().entrySet()) {
+                current.put(name + ":" + secondary.getKey(), new Measurement(mode, secondary.getValue()));
+            }
+        }
+        write(out, current);
+        if (record) {
+            write(baseline, current);
+            System.out.println("Recorded " + current.size() + " results as the baseline " + baseline);
+            return 0;
+        }
+        return compare(read(baseline), current);
+    }
+
+    //Class and method without the package, followed by the parameters
+    private static String name(BenchmarkParams params) {
+        StringBuilder name = new StringBuilder(params.getBenchmark().replace(PACKAGE, ""));
+        if (!params.getParamsKeys().isEmpty()) {
+            List<String> values = new ArrayList<>();
+            for (String key : params.getParamsKeys()) values.add(key + "=" + params.getParam(key));
+            name.append('[').append(String.join(",", values)).append(']');
+        }
+        return name.toString();
+    }
+
+    private int compare(Map<String, Measurement> base, Map<String, Measurement> current) {
+        List<String> regressions = new ArrayList<>();
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-40s %30s %30s %9s  %s%n", "Benchmark", "Baseline", "Current", "Change", "");
+        for (Map.Entry<String, Measurement> entry : current.entrySet()) {
+            String name = entry.getKey();
+            Measurement now = entry.getValue();
+            Measurement before = base.get(name);
+            if (before == null) {
+                System.out.printf(Locale.ROOT, "%-40s %30s %30s %9s  %s%n", name, "-", now, "", "new");
+                continue;
+            }
+            if (!before.unit.equals(now.unit) || !before.mode.equals(now.mode)) {
+                System.out.printf(Locale.ROOT, "%-40s %30s %30s %9s  %s%n", name, before, now, "", "not comparable");
+                continue;
+            }
+            //Positive when the benchmark got worse: lower throughput or higher time
+            double change = (now.score - before.score) / before.score;
+            double worse = now.higherIsBetter() ? -change : change;
+            String verdict = "ok";
+            if (worse > tolerance && !now.overlaps(before)) {
+                verdict = "REGRESSION";
+                regressions.add(String.format(Locale.ROOT, "%s got %.1f%% worse: %s -> %s", name, worse * 100, before, now));
+            } else if (-worse > tolerance && !now.overlaps(before)) {
+                verdict = "improved";
+            }
+            System.out.printf(Locale.ROOT, "%-40s %30s %30s %+8.1f%%  %s%n", name, before, now, change * 100, verdict);
+        }
+        for (String name : base.keySet()) {
+            if (!current.containsKey(name)) System.out.printf(Locale.ROOT, "%-40s %30s %30s %9s  %s%n", name, base.get(name), "-", "", "not run");
+        }
+        System.out.println();
+        if (regressions.isEmpty()) {
+            System.out.printf(Locale.ROOT, "No regression beyond %.0f%% against %s%n", tolerance * 100, baseline);
+            return 0;
+        }
+        System.out.printf(Locale.ROOT, "%d regression(s) beyond %.0f%% against %s:%n", regressions.size(), tolerance * 100, baseline);
+        for (String regression : regressions) System.out.println("  " + regression);
+        return 1;
+    }
+
+    private static void write(Path file, Map<String, Measurement> results) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# Connect Four benchmark results, compared by lk.ijse.dep.bench.RegressionGate\n");
+            writer.write("version\t" + VERSION + "\n");
+            writer.write("java\t" + jvm() + "\n");
+            writer.write("host\t" + host() + "\n");
+            writer.write("benchmark\tmode\tunit\tscore\terror\tsamples\n");
+            for (Map.Entry<String, Measurement> entry : results.entrySet()) {
+                Measurement m = entry.getValue();
+                writer.write(String.join("\t", entry.getKey(), m.mode, m.unit, String.valueOf(m.score),
+                        String.valueOf(m.error), String.valueOf(m.samples)) + "\n");
+            }
+        }
+    }
+
+    private static String jvm() {
+        return System.getProperty("java.vm.name") + " " + System.getProperty("java.version");
+    }
+
+    private static String host() {
+        return System.getProperty("os.name") + " " + System.getProperty("os.arch") + ", "
+                + Runtime.getRuntime().availableProcessors() + " cpus";
+    }
+
+    private static Map<String, Measurement> read(Path file) throws IOException {
+        Map<String, Measurement> results = new LinkedHashMap<>();
+        boolean versioned = false;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] fields = line.split("\t");
+            switch (fields[0]) {
+                case "version":
+                    if (Integer.parseInt(fields[1]) != VERSION) throw new IOException("Unsupported results version " + fields[1] + " in " + file);
+                    versioned = true;
+                    break;
+                case "java":
+                case "host":
+                    String here = fields[0].equals("java") ? jvm() : host();
+                    if (fields.length < 2 || !fields[1].equals(here)) {
+                        System.out.println("Warning: the baseline was recorded on " + line.replace('\t', ' ') + ", this run is on "
+                                + here + ", differences may come from the machine");
+                    }
+                    break;
+                case "benchmark":
+                    break;
+                default:
+                    if (fields.length != 6) throw new IOException("Not a result line in " + file + ": " + line);
+                    results.put(fields[0], new Measurement(fields[1], fields[2], Double.parseDouble(fields[3]),
+                            Double.parseDouble(fields[4]), Long.parseLong(fields[5])));
+            }
+        }
+        if (!versioned) throw new IOException("No version line in " + file);
+        return results;
+    }
+
+    private static class Measurement {
+        private final String mode;
+        private final String unit;
+        private final double score;
+        //Half width of the 99.9% confidence interval, 0 when there are too few samples to tell
+        private final double error;
+        private final long samples;
+
+        private Measurement(String mode, Result result) {
+            this(mode, result.getScoreUnit(), result.getScore(), result.getScoreError(), result.getStatistics().getN());
+        }
+
+        private Measurement(String mode, String unit, double score, double error, long samples) {
+            this.mode = mode;
+            this.unit = unit;
+            this.score = score;
+            this.error = Double.isNaN(error) ? 0 : error;
+            this.samples = samples;
+        }
+
+        private boolean higherIsBetter() {
+            return mode.equals("thrpt");
+        }
+
+        private boolean overlaps(Measurement other) {
+            return score - error <= other.score + other.error && other.score - other.error <= score + error;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%.4g +/- %.2g %s", score, error, unit);
+        }
+    }
+}
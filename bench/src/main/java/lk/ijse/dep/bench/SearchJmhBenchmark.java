@@ -0,0 +1,88 @@
+package lk.ijse.dep.bench;
+
+import lk.ijse.dep.service.AiPlayer;
+import lk.ijse.dep.service.Board;
+import lk.ijse.dep.service.BoardImpl;
+import lk.ijse.dep.service.Position;
+import lk.ijse.dep.service.SearchResult;
+import lk.ijse.dep.service.SearchSettings;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the AiPlayer search on every corpus position, each always with the same seed, so every call does the same
+ * work: the average time of a move and the playouts per second. Tracked by the {@link RegressionGate}.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class SearchJmhBenchmark {
+
+    private static final int ITERATIONS = 2000;
+
+    private final List<Board> boards = new ArrayList<>();
+    private final List<SearchSettings> settings = new ArrayList<>();
+
+    //Playouts of the root's children, counted as operations so JMH reports them per second
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Playouts {
+        public long playouts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            playouts = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        long seed = 1;
+        for (Position position : Corpus.positions()) {
+            boards.add(new BoardImpl(null, position));
+            SearchSettings positionSettings = new SearchSettings();
+            positionSettings.setIterations(ITERATIONS);
+            positionSettings.setSeed(seed++);
+            settings.add(positionSettings);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @OperationsPerInvocation(Corpus.SIZE)
+    public void moveLatency(Blackhole blackhole) {
+        for (int i = 0; i < boards.size(); i++) {
+            Board board = boards.get(i);
+            blackhole.consume(AiPlayer.search(board, board.getPosition().sideToMove(), settings.get(i)));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void throughput(Playouts counter) {
+        for (int i = 0; i < boards.size(); i++) {
+            Board board = boards.get(i);
+            SearchResult result = AiPlayer.search(board, board.getPosition().sideToMove(), settings.get(i));
+            for (int visits : result.getVisits()) counter.playouts += visits;
+        }
+    }
+}
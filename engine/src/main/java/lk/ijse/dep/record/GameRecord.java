@@ -0,0 +1,98 @@
+package lk.ijse.dep.record;
+
+import lk.ijse.dep.service.Board;
+import lk.ijse.dep.service.Piece;
+
+/**
+ * One recorded game: who moved first, the columns played and how it ended, and for self-play games
+ * how the search shared its visits between the columns at every move.
+ */
+public class GameRecord {
+
+    private final Piece firstPiece;
+    private final byte[] moves;
+    private final Piece winner;
+    private final boolean finished;
+    //6 bytes per move, null when the game was recorded without statistics
+    private final byte[] statistics;
+
+    public GameRecord(Piece firstPiece, byte[] moves, Piece winner, boolean finished) {
+        this(firstPiece, moves, winner, finished, null);
+    }
+
+    public GameRecord(Piece firstPiece, byte[] moves, Piece winner, boolean finished, byte[] statistics) {
+        this.firstPiece = firstPiece;
+        this.moves = moves;
+        this.winner = winner;
+        this.finished = finished;
+        this.statistics = statistics;
+    }
+
+    public Piece getFirstPiece() {
+        return firstPiece;
+    }
+
+    public int getMoveCount() {
+        return moves.length;
+    }
+
+    public int getMove(int ply) {
+        return moves[ply];
+    }
+
+    //Piece that played the given ply
+    public Piece getPiece(int ply) {
+        if (ply % 2 == 0) return firstPiece;
+        return firstPiece == Piece.BLUE ? Piece.GREEN : Piece.BLUE;
+    }
+
+    /**
+     * @return the winning piece, or {@link Piece#EMPTY} for a draw or an abandoned game
+     */
+    public Piece getWinner() {
+        return winner;
+    }
+
+    //False when the game was abandoned (Play Again or window closed before the end)
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public boolean hasStatistics() {
+        return statistics != null;
+    }
+
+    //Share of the search's visits that went to the column at the given ply, from 0 to 1
+    public double getVisitShare(int ply, int col) {
+        if (statistics == null) throw new IllegalStateException("The game was recorded without statistics");
+        if (ply >= moves.length) throw new IllegalArgumentException("The game has only " + moves.length + " moves");
+        return (statistics[ply * Board.NUM_OF_COLS + col] & 0xFF) / 255.0;
+    }
+
+    public void replay(Board board) {
+        replay(board, moves.length);
+    }
+
+    //Plays the first plies of the game onto an empty board
+    public void replay(Board board, int plies) {
+        if (plies > moves.length) throw new IllegalArgumentException("The game has only " + moves.length + " moves");
+        for (int i = 0; i < plies; i++) {
+            if (!board.isLegalMove(moves[i]))
+                throw new IllegalStateException("Illegal move " + moves[i] + " at ply " + i + ", is the board empty?");
+            board.updateMove(moves[i], getPiece(i));
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (byte move : moves) sb.append(move);
+        return "GameRecord{" +
+                "firstPiece=" + firstPiece +
+                ", moves=" + sb +
+                ", winner=" + winner +
+                ", finished=" + finished +
+                ", statistics=" + (statistics != null) +
+                '}';
+    }
+}
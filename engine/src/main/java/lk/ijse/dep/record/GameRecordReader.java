@@ -0,0 +1,166 @@
+package lk.ijse.dep.record;
+
+import lk.ijse.dep.service.Board;
+import lk.ijse.dep.service.Piece;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Streams the games of a log written by {@link GameRecordWriter}, one at a time.
+ * A game that was cut off by a crash at the end of the file is ignored. Other damage makes {@link #read()} throw,
+ * unless the reader is lenient: it then stops at the first damaged game as if the file ended there.
+ */
+public class GameRecordReader implements Closeable {
+
+    private final InputStream in;
+
+    //Offset just after the last complete game
+    private long validLength;
+    private long position;
+    private boolean lenient;
+    private boolean corrupted;
+
+    public GameRecordReader(Path file) throws IOException {
+        this(Files.newInputStream(file));
+    }
+
+    public GameRecordReader(InputStream in) throws IOException {
+        this.in = new BufferedInputStream(in);
+        byte[] magic = new byte[GameRecordWriter.MAGIC.length];
+        if (this.in.readNBytes(magic, 0, magic.length) != magic.length || !Arrays.equals(magic, GameRecordWriter.MAGIC)) {
+            this.in.close();
+            throw new IOException("Not a game record file");
+        }
+        int version = this.in.read();
+        if (version != GameRecordWriter.VERSION) {
+            this.in.close();
+            throw new IOException("Unsupported game record version: " + version);
+        }
+        position = validLength = GameRecordWriter.HEADER_LENGTH;
+    }
+
+    /**
+     * @return the next game, or null when there are no more complete games
+     */
+    public GameRecord read() throws IOException {
+        if (corrupted) return null;
+        try {
+            return readGame();
+        } catch (CorruptedRecordException e) {
+            if (!lenient) throw e;
+            corrupted = true;
+            return null;
+        }
+    }
+
+    private GameRecord readGame() throws IOException {
+        int header = in.read();
+        if (header == -1) return null;
+        position++;
+        if ((header & 0xF0) != GameRecordWriter.GAME_MARKER)
+            throw new CorruptedRecordException("Corrupted game record at offset " + (position - 1));
+
+        Piece firstPiece = (header & GameRecordWriter.FLAG_GREEN_FIRST) != 0 ? Piece.GREEN : Piece.BLUE;
+        byte[] moves = new byte[Board.NUM_OF_COLS * Board.NUM_OF_ROWS];
+        int moveCount = 0;
+        try {
+            while (true) {
+                int b = readByte();
+                int high = b >>> 4;
+                int low = b & 0x0F;
+                if (high == GameRecordWriter.END_OF_GAME) {
+                    return complete(firstPiece, moves, moveCount, low, header);
+                }
+                moves[moveCount++] = (byte) checkMove(high);
+                if (low == GameRecordWriter.END_OF_GAME) {
+                    return complete(firstPiece, moves, moveCount, readByte() >>> 4, header);
+                }
+                moves[moveCount++] = (byte) checkMove(low);
+            }
+        } catch (EOFException e) {
+            return null;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new CorruptedRecordException("Corrupted game record at offset " + position);
+        }
+    }
+
+    private GameRecord complete(Piece firstPiece, byte[] moves, int moveCount, int result, int header) throws IOException {
+        byte[] statistics = null;
+        if ((header & GameRecordWriter.FLAG_STATS) != 0) {
+            statistics = new byte[moveCount * Board.NUM_OF_COLS];
+            if (in.readNBytes(statistics, 0, statistics.length) != statistics.length) throw new EOFException();
+            position += statistics.length;
+        }
+        Piece winner;
+        switch (result) {
+            case GameRecordWriter.RESULT_DRAW:
+            case GameRecordWriter.RESULT_ABANDONED:
+                winner = Piece.EMPTY;
+                break;
+            case GameRecordWriter.RESULT_BLUE:
+                winner = Piece.BLUE;
+                break;
+            case GameRecordWriter.RESULT_GREEN:
+                winner = Piece.GREEN;
+                break;
+            default:
+                throw new CorruptedRecordException("Invalid game result at offset " + position + ": " + result);
+        }
+        validLength = position;
+        return new GameRecord(firstPiece, Arrays.copyOf(moves, moveCount), winner,
+                result != GameRecordWriter.RESULT_ABANDONED, statistics);
+    }
+
+    private int checkMove(int col) throws IOException {
+        if (col >= Board.NUM_OF_COLS) throw new CorruptedRecordException("Invalid move in game record at offset " + position);
+        return col;
+    }
+
+    private int readByte() throws IOException {
+        int b = in.read();
+        if (b == -1) throw new EOFException();
+        position++;
+        return b;
+    }
+
+    //Lenient readers treat damaged data as the end of the file, e.g. to recover a log after a crash
+    public boolean isLenient() {
+        return lenient;
+    }
+
+    public void setLenient(boolean lenient) {
+        this.lenient = lenient;
+    }
+
+    //True once a lenient reader stopped at damaged data
+    public boolean isCorrupted() {
+        return corrupted;
+    }
+
+    /**
+     * @return the length of the file up to the end of the last complete game read so far
+     */
+    public long getValidLength() {
+        return validLength;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private static class CorruptedRecordException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        CorruptedRecordException(String message) {
+            super(message);
+        }
+    }
+}
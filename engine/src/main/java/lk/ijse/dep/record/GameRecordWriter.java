@@ -0,0 +1,185 @@
+package lk.ijse.dep.record;
+
+import lk.ijse.dep.service.Board;
+import lk.ijse.dep.service.Piece;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends games to a compact binary log. An existing log is first cut back to the end of its last complete game.
+ *
+ * File layout: the 4 byte magic "C4GR" and a version byte, followed by any number of games.
+ * Each game is a header byte (upper nibble 0xA, bit 0 set when GREEN moved first, bit 1 set when the
+ * game has per-move statistics), then one nibble per move (the column), an end nibble 0xF and a result
+ * nibble (0 draw, 1 BLUE won, 2 GREEN won, 3 abandoned), padded to a whole byte.
+ * A full game on the 6x5 board therefore takes at most 17 bytes.
+ *
+ * Games with statistics are followed by one byte per column for every move: the share of the search's
+ * visits that went to the column, scaled to 0-255. That adds 6 bytes per move.
+ */
+public class GameRecordWriter implements Closeable {
+
+    private static final System.Logger LOGGER = System.getLogger(GameRecordWriter.class.getName());
+
+    static final byte[] MAGIC = {'C', '4', 'G', 'R'};
+    static final int VERSION = 1;
+    static final int HEADER_LENGTH = MAGIC.length + 1;
+
+    static final int GAME_MARKER = 0xA0;
+    static final int FLAG_GREEN_FIRST = 0x01;
+    static final int FLAG_STATS = 0x02;
+
+    static final int END_OF_GAME = 0xF;
+    //Result nibbles, fixed by the file format whatever codes Piece uses
+    static final int RESULT_DRAW = 0;
+    static final int RESULT_BLUE = 1;
+    static final int RESULT_GREEN = 2;
+    static final int RESULT_ABANDONED = 3;
+
+    private final OutputStream out;
+    private final byte[] statistics = new byte[Board.NUM_OF_COLS * Board.NUM_OF_ROWS * Board.NUM_OF_COLS];
+
+    private boolean inGame;
+    private int pendingNibble = -1;
+    private int moveCount;
+    private boolean withStatistics;
+
+    public GameRecordWriter(Path file) throws IOException {
+        boolean isNew = Files.notExists(file) || Files.size(file) == 0;
+        if (!isNew) {
+            truncateDamagedEnd(file);
+        } else if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        out = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+        if (isNew) {
+            out.write(MAGIC);
+            out.write(VERSION);
+            out.flush();
+        }
+    }
+
+    /* New games must follow the last complete one: a reader stops at a game left half written or damaged by
+       a crash, and would never get to the games appended after it.
+     */
+    private static void truncateDamagedEnd(Path file) throws IOException {
+        long validLength;
+        try (GameRecordReader reader = new GameRecordReader(file)) {
+            reader.setLenient(true);
+            while (reader.read() != null) ;
+            validLength = reader.getValidLength();
+        }
+        long size = Files.size(file);
+        if (validLength < size) {
+            LOGGER.log(System.Logger.Level.WARNING, "Cutting off {0} bytes after the last complete game of {1}",
+                    size - validLength, file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+    }
+
+    public boolean isInGame() {
+        return inGame;
+    }
+
+    public void beginGame(Piece firstPiece) throws IOException {
+        beginGame(firstPiece, false);
+    }
+
+    //With statistics every move should come with the search's visits, see recordMove(int, int[])
+    public void beginGame(Piece firstPiece, boolean withStatistics) throws IOException {
+        if (inGame) abandonGame();
+        if (firstPiece == Piece.EMPTY) throw new IllegalArgumentException("A game can't be started by " + firstPiece);
+        out.write(GAME_MARKER | (firstPiece == Piece.GREEN ? FLAG_GREEN_FIRST : 0) | (withStatistics ? FLAG_STATS : 0));
+        inGame = true;
+        moveCount = 0;
+        this.withStatistics = withStatistics;
+    }
+
+    public void recordMove(int col) throws IOException {
+        recordMove(col, null);
+    }
+
+    /**
+     * @param visits the visits of the search per column, kept as shares of their total when the game
+     *               was started with statistics. Null, or no visits at all, gives the whole share to the move played
+     */
+    public void recordMove(int col, int[] visits) throws IOException {
+        if (!inGame) throw new IllegalStateException("No game has been started");
+        if (col < 0 || col >= Board.NUM_OF_COLS) throw new IllegalArgumentException("Invalid column: " + col);
+        if (moveCount == Board.NUM_OF_COLS * Board.NUM_OF_ROWS)
+            throw new IllegalStateException("The board is already full");
+        writeNibble(col);
+        if (withStatistics) share(col, visits, moveCount * Board.NUM_OF_COLS);
+        moveCount++;
+    }
+
+    /**
+     * Closes the current game with its result and flushes it, so a crash loses at most the game in progress.
+     *
+     * @param winner the winning piece or {@link Piece#EMPTY} for a draw
+     */
+    public void endGame(Piece winner) throws IOException {
+        switch (winner) {
+            case BLUE:
+                finishGame(RESULT_BLUE);
+                break;
+            case GREEN:
+                finishGame(RESULT_GREEN);
+                break;
+            default:
+                finishGame(RESULT_DRAW);
+        }
+    }
+
+    public void abandonGame() throws IOException {
+        if (inGame) finishGame(RESULT_ABANDONED);
+    }
+
+    private void finishGame(int result) throws IOException {
+        if (!inGame) throw new IllegalStateException("No game has been started");
+        writeNibble(END_OF_GAME);
+        writeNibble(result);
+        if (pendingNibble != -1) writeNibble(0);
+        if (withStatistics) out.write(statistics, 0, moveCount * Board.NUM_OF_COLS);
+        inGame = false;
+        out.flush();
+    }
+
+    private void share(int col, int[] visits, int offset) {
+        long total = 0;
+        if (visits != null) {
+            for (int v : visits) total += v;
+        }
+        for (int i = 0; i < Board.NUM_OF_COLS; i++) {
+            int share = total == 0 ? (i == col ? 255 : 0) : (int) Math.round(255.0 * visits[i] / total);
+            statistics[offset + i] = (byte) share;
+        }
+    }
+
+    private void writeNibble(int nibble) throws IOException {
+        if (pendingNibble == -1) {
+            pendingNibble = nibble;
+        } else {
+            out.write((pendingNibble << 4) | nibble);
+            pendingNibble = -1;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            abandonGame();
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package lk.ijse.dep.service;
+
+/**
+ * Aims for an even share of the remaining time per move, like {@link FixedTimeManager}, but:
+ * - a forced move is played at once
+ * - the search stops early once the most visited move holds most of the visits, it won't be caught
+ * - at the target, the search goes on while the two best moves are close or the best one changed
+ *   recently, up to a few times the target and never more than a fixed share of the time left
+ */
+public class AdaptiveTimeManager implements TimeManager {
+
+    //The best move may stop the search early from this share of the target, with this share of the visits
+    private static final double EARLY_STOP = 0.25;
+    private static final double DOMINANT_SHARE = 0.75;
+    private static final int MIN_PLAYOUTS = 500;
+    //Two moves are close when the second has this share of the best one's visits
+    private static final double CLOSE = 0.8;
+    //A change of best move is recent in the last part of the search
+    private static final double RECENT = 0.3;
+    //Bounds of an extended search: a multiple of the target and a share of the time left
+    private static final double MAX_EXTENSION = 3;
+    private static final double MAX_SHARE = 0.4;
+
+    @Override
+    public long target(Position position, long timeLeftNanos) {
+        return Math.max(0, timeLeftNanos) / FixedTimeManager.movesLeft(position);
+    }
+
+    @Override
+    public Decision check(Status status) {
+        if (status.getCandidates() <= 1) return Decision.FORCED;
+        long elapsed = status.getElapsedNanos();
+        long target = status.getTargetNanos();
+        long limit = Math.min((long) (target * MAX_EXTENSION), (long) (status.getTimeLeftNanos() * MAX_SHARE));
+        if (elapsed >= Math.max(limit, target)) return Decision.LIMIT;
+
+        double bestShare = status.getBestVisits() / (double) Math.max(1, status.getPlayouts());
+        if (elapsed >= target * EARLY_STOP && status.getPlayouts() >= MIN_PLAYOUTS && bestShare >= DOMINANT_SHARE) {
+            return Decision.DOMINANT;
+        }
+        if (elapsed < target) return Decision.CONTINUE;
+
+        boolean close = status.getSecondVisits() >= status.getBestVisits() * CLOSE;
+        boolean unstable = status.getBestChanges() > 0 && status.getLastChangeNanos() >= elapsed * (1 - RECENT);
+        return close || unstable ? Decision.EXTEND : Decision.TARGET;
+    }
+
+    @Override
+    public String toString() {
+        return "adaptive";
+    }
+}
@@ -0,0 +1,1193 @@
+package lk.ijse.dep.service;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+public class AiPlayer extends Player{
+
+    private static final System.Logger LOGGER = System.getLogger(AiPlayer.class.getName());
+
+    private final SearchSettings settings;
+
+    //What is left of the game's time budget, when the settings give one
+    private long timeLeft;
+
+    //Pondering: after its move the AI keeps searching the human's replies on a background thread
+    private MCTS ponderSearch;
+    private Node ponderTree;
+    private Thread ponderThread;
+    private volatile boolean stopPondering;
+
+    public AiPlayer(Board board) {
+        this(board,new SearchSettings());
+    }
+
+    public AiPlayer(Board board, SearchSettings settings) {
+        super(board);
+        this.settings = settings;
+        this.timeLeft = TimeUnit.MILLISECONDS.toNanos(settings.getGameTime());
+    }
+
+    @Override
+    public void movePiece(int col) {
+
+        MoveEvent event=new MoveEvent();
+        event.begin();
+        long start=System.nanoTime();
+        stopPondering();
+        MCTS mcts=ponderSearch!=null ? ponderSearch : new MCTS(settings,Piece.GREEN);
+        //The subtree of the human's actual reply, if pondering got to it
+        Node tree=ponderSearch!=null ? mcts.promote(ponderTree,board.getPosition()) : null;
+        ponderSearch=null;
+        ponderTree=null;
+        event.moveNumber=board.getPosition().moveCount()+1;
+        col=mcts.findTheMove(board.getPosition(),tree,timeLeft).getMove();
+        timeLeft-=System.nanoTime()-start;
+        event.move=col;
+        event.timeLeft=settings.getGameTime()>0 ? timeLeft : 0;
+
+        board.updateMove(col,Piece.GREEN);
+        board.getBoardUI().update(col,false);
+        Winner winner=board.findWinner();
+        if (winner.getWinningPiece()!=Piece.EMPTY){
+            board.getBoardUI().notifyWinner(winner);
+        }
+        else if (!board.existLegalMoves()){
+            board.getBoardUI().notifyWinner(Winner.NO_WINNER);
+        }
+        else if (settings.getPonderIterations()>0){
+            startPondering(mcts,mcts.promote(mcts.getLastTree(),board.getPosition()));
+        }
+        event.commit();
+
+
+    }
+
+    //Stops pondering, e.g. when the game is restarted or the window is closed
+    @Override
+    public void dispose() {
+        stopPondering();
+        ponderSearch=null;
+        ponderTree=null;
+    }
+
+    private void startPondering(MCTS mcts, Node tree) {
+        ponderSearch=mcts;
+        ponderTree=tree!=null ? tree : mcts.newRoot(board.getPosition());
+        stopPondering=false;
+        Node root=ponderTree;
+        ponderThread=new Thread(() -> mcts.ponder(root,() -> stopPondering),"ai-ponder");
+        ponderThread.setDaemon(true);
+        ponderThread.setPriority(Thread.MIN_PRIORITY);
+        ponderThread.start();
+    }
+
+    //Waits for the ponder thread so the tree is no longer touched by it
+    private void stopPondering() {
+        if (ponderThread==null) return;
+        stopPondering=true;
+        try {
+            ponderThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ponderThread=null;
+    }
+
+    //Runs the same search the AI uses on any board, for the given piece to move. The board is not modified
+    public static SearchResult search(Board board,Piece piece,int computations){
+        SearchSettings settings=new SearchSettings();
+        settings.setIterations(computations);
+        return search(board,piece,settings);
+    }
+
+    public static SearchResult search(Board board,Piece piece,SearchSettings settings){
+        if (piece==Piece.EMPTY){
+            throw new IllegalArgumentException("The piece to move can't be "+piece);
+        }
+        return new MCTS(settings,piece).findTheMove(board.getPosition(),null,0);
+    }
+
+    //The same with what is left of a game's time budget, for settings with a game time
+    public static SearchResult search(Board board,Piece piece,SearchSettings settings,long timeLeftNanos){
+        if (piece==Piece.EMPTY){
+            throw new IllegalArgumentException("The piece to move can't be "+piece);
+        }
+        return new MCTS(settings,piece).findTheMove(board.getPosition(),null,timeLeftNanos);
+    }
+
+    //MCTS Algorithm itself and some Utility Classes
+    private static class MCTS {
+        private final SearchSettings settings;
+
+        //Iteration Count
+        private final int computations;
+
+        //The piece the search is looking for a move for, and its opponent
+        private final Piece piece;
+        private final Piece opponent;
+
+        //Scores playouts cut off after settings.getRolloutDepth() moves
+        private final PatternEvaluator evaluator;
+
+        //All the random choices of the search, seeded from the settings when a seed is given
+        private final SplittableRandom random;
+
+        //Tree size bookkeeping: nodes released by pruning are kept on a free list and reused
+        private final int maxNodes;
+        private final ArrayDeque<Node> freeNodes = new ArrayDeque<>();
+        private int nodeCount;
+        private int peakNodes;
+        private long evictions;
+
+        //One playout per leaf of a batch, each with its own random numbers so parallel playouts stay reproducible
+        private final Playout[] playouts;
+        private final Node[] leaves;
+        private final Piece[] results;
+
+        //Root of the last search, its children are the positions after each of the moves
+        private Node lastTree;
+
+        //JFR: the event of the search in progress, null while searches aren't recorded
+        private SearchEvent event;
+        private long playoutCount;
+        private long allocatedNodes;
+
+        public MCTS(SearchSettings settings, Piece piece) {
+            this.settings = settings;
+            this.computations = settings.getIterations();
+            this.piece = piece;
+            this.opponent = opposite(piece);
+            this.evaluator = settings.getRolloutDepth() > 0 ? settings.getEvaluator() : null;
+            this.maxNodes = settings.getMaxNodes();
+            this.random = settings.getSeed() != null ? new SplittableRandom(settings.getSeed()) : new SplittableRandom();
+            int batchSize = settings.getBatchSize();
+            this.playouts = new Playout[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                playouts[i] = new Playout(random.split(), settings.getRolloutDepth(), evaluator);
+            }
+            this.leaves = new Node[batchSize];
+            this.results = new Piece[batchSize];
+        }
+
+        //The search, recorded as a SearchEvent when JFR asks for it
+        private SearchResult findTheMove(Position position, Node tree, long timeLeft){
+            SearchEvent event=new SearchEvent();
+            if (!event.isEnabled()) return searchTheMove(position,tree,timeLeft);
+            event.begin();
+            event.piece=piece.name();
+            event.moveNumber=position.moveCount()+1;
+            event.iterations=computations;
+            event.timeLeft=timeLeft;
+            event.reusedPlayouts=tree!=null ? tree.getVisit() : 0;
+            event.source="search";
+            long playoutsBefore=playoutCount;
+            long allocatedBefore=allocatedNodes;
+            this.event=event;
+            try {
+                SearchResult result=searchTheMove(position,tree,timeLeft);
+                event.move=result.getMove();
+                event.value=result.getValue();
+                event.proven=lastTree!=null && lastTree.isProven();
+                event.playouts=playoutCount-playoutsBefore;
+                event.nodesAllocated=allocatedNodes-allocatedBefore;
+                event.peakNodes=peakNodes;
+                event.evictions=evictions;
+                event.commit();
+                return result;
+            } finally {
+                this.event=null;
+            }
+        }
+
+        /* Searches the position, continuing from the tree kept from pondering when there is one.
+           With a game time the time manager decides when to stop, out of timeLeft nanoseconds
+         */
+        private SearchResult searchTheMove(Position position, Node tree, long timeLeft){
+            lastTree=null;
+            int candidates=position.legalMoves();
+            //Tactics first: a winning or forced move needs no search
+            if (settings.isTactics()){
+                candidates=tacticalMoves(position,piece);
+                if (Integer.bitCount(candidates)==1){
+                    if (settings.getGameTime()>0){
+                        LOGGER.log(System.Logger.Level.DEBUG,"{0} by tactics: move {1}, {2} ms left",
+                                TimeManager.Decision.FORCED,position.moveCount()+1,timeLeft/1_000_000);
+                    }
+                    if (tree!=null) release(tree,false);
+                    if (event!=null) event.source="tactics";
+                    //Known result for a win or a lost position, an ordinary forced block is reported as even
+                    int move=Integer.numberOfTrailingZeros(candidates);
+                    double value=position.isWinningMove(move,piece) ? 1 : Integer.bitCount(threats(position,opponent))>1 ? 0 : 0.5;
+                    return new SearchResult(move,value,new int[Board.NUM_OF_COLS]);
+                }
+            }
+
+            //So does a book move
+            TranspositionTable book=settings.getBook();
+            long entry=book!=null ? book.probe(position.key()) : TranspositionTable.NOT_FOUND;
+            if (entry!=TranspositionTable.NOT_FOUND && (candidates & (1<<TranspositionTable.move(entry)))!=0){
+                if (tree!=null) release(tree,false);
+                if (event!=null) event.source="book";
+                int move=TranspositionTable.move(entry);
+                int[] visits=new int[Board.NUM_OF_COLS];
+                visits[move]=TranspositionTable.visits(entry);
+                return new SearchResult(move,TranspositionTable.score(entry)/(double) Math.max(1,visits[move]),visits);
+            }
+
+            //And a result another search of the JVM with the same settings already paid for
+            SearchCache cache=settings.isSharedCache() && settings.getGameTime()==0 ? SearchCache.getShared() : null;
+            if (cache!=null){
+                SearchResult cached=cache.get(position,settings);
+                if (cached!=null && (candidates & (1<<cached.getMove()))!=0){
+                    if (tree!=null) release(tree,false);
+                    if (event!=null) event.source="cache";
+                    return cached;
+                }
+            }
+            long start=System.nanoTime();
+
+            if (tree==null){
+                tree=newNode(position,opponent);
+            }
+            lastTree=tree;
+
+            if (settings.getGameTime()>0){
+                searchOnTime(tree,position,Integer.bitCount(candidates),timeLeft);
+            } else {
+                //Playouts made while pondering count towards the budget
+                int count=tree.getVisit();
+
+                //A proven root needs no more playouts
+                while (count<computations && !tree.isProven()){
+
+                    count+=iterate(tree,computations-count);
+
+                }
+            }
+
+            //A root promoted from pondering may never have been expanded, when the node cap was reached
+            if (tree.getChildren().isEmpty()){
+                addChildren(tree);
+            }
+            Node bestNode=bestChild(tree);
+
+            int[] visits=new int[Board.NUM_OF_COLS];
+            for (Node child : tree.getChildren()) {
+                visits[child.getMove()]=child.getVisit();
+            }
+            double value=bestNode.isProven() ? provenValue(bestNode) : bestNode.getScore()/(double) Math.max(1,bestNode.getVisit());
+            SearchResult result=new SearchResult(bestNode.getMove(),value,visits,peakNodes,evictions);
+            if (cache!=null){
+                cache.put(position,settings,result,tree.isProven() ? SearchCache.PROVEN : tree.getVisit(),System.nanoTime()-start);
+            }
+            return result;
+
+        }
+
+        //Playouts between two questions to the time manager
+        private static final int CHECK_INTERVAL=128;
+
+        //Searches until the time manager stops it, telling it how the visits of the root are spread
+        private void searchOnTime(Node tree, Position position, int candidates, long timeLeft){
+            TimeManager manager=settings.getTimeManager();
+            long start=System.nanoTime();
+            TimeManager.Status status=new TimeManager.Status();
+            status.start(position,candidates,manager.target(position,timeLeft),timeLeft);
+            int best=-1;
+            boolean extended=false;
+            while (true){
+                for (int i = 0; i < CHECK_INTERVAL && !tree.isProven(); ) {
+                    i+=iterate(tree,CHECK_INTERVAL-i);
+                }
+                if (tree.isProven()){
+                    LOGGER.log(System.Logger.Level.DEBUG,"{0} ({1}): {2}",TimeManager.Decision.SOLVED,manager,status);
+                    return;
+                }
+                int move=-1, bestVisits=0, secondVisits=0;
+                for (Node child : tree.getChildren()) {
+                    if (child.getVisit()>bestVisits){
+                        secondVisits=bestVisits;
+                        bestVisits=child.getVisit();
+                        move=child.getMove();
+                    } else if (child.getVisit()>secondVisits){
+                        secondVisits=child.getVisit();
+                    }
+                }
+                status.update(System.nanoTime()-start,tree.getVisit(),bestVisits,secondVisits,best!=-1 && move!=best);
+                best=move;
+                TimeManager.Decision decision=manager.check(status);
+                if (decision.stops() || (decision==TimeManager.Decision.EXTEND && !extended)){
+                    LOGGER.log(System.Logger.Level.DEBUG,"{0} ({1}): {2}",decision,manager,status);
+                }
+                if (decision.stops()) return;
+                extended|=decision==TimeManager.Decision.EXTEND;
+            }
+        }
+
+        //Searches until stopped or the tree holds settings.getPonderIterations() playouts
+        private void ponder(Node tree, BooleanSupplier stop){
+            while (!stop.getAsBoolean() && tree.getVisit()<settings.getPonderIterations() && isTheGameOngoing(tree.getPosition()) && !tree.isProven()){
+                iterate(tree,settings.getPonderIterations()-tree.getVisit());
+            }
+        }
+
+        /* One batch of at most settings.getBatchSize() iterations, returns how many were run.
+           The leaves are selected one after the other under virtual loss: each selected path is
+           visited at once, as if the playout had been lost, so the next selections spread over other
+           leaves. The playouts then run together, in parallel if enabled, and their results are
+           backpropagated in order. The batch ends early, possibly empty, once the root is proven.
+         */
+        private int iterate(Node tree, int count){
+            int batch=Math.min(count,playouts.length);
+
+            //Make room for the expansions of the batch before walking down the tree
+            if (maxNodes>0 && nodeCount+batch*Board.NUM_OF_COLS>maxNodes){
+                prune(tree);
+            }
+
+            //The phases are only timed for a recorded search
+            SearchEvent timed=event;
+            long phaseStart=timed!=null ? System.nanoTime() : 0;
+            for (int i = 0; i < batch; i++) {
+                if (tree.isProven()){
+                    batch=i;
+                    break;
+                }
+                //Selection
+                Node selectedNode=selectNode(tree);
+                long selected=timed!=null ? System.nanoTime() : 0;
+
+                //Expand
+                Node nodeToExplore= expandNode(selectedNode);
+                if (timed!=null){
+                    long expanded=System.nanoTime();
+                    timed.selectionTime+=selected-phaseStart;
+                    timed.expansionTime+=expanded-selected;
+                    phaseStart=expanded;
+                }
+
+                //Virtual loss
+                for (Node node=nodeToExplore; node!=null; node=node.getParent()){
+                    node.incrementVisit();
+                }
+                leaves[i]=nodeToExplore;
+                //A proven node needs no playout, its result is known
+                results[i]=nodeToExplore.isProven() ? provenResult(nodeToExplore) : null;
+            }
+
+            //Simulation
+            if (timed!=null) phaseStart=System.nanoTime();
+            if (settings.isParallelPlayouts() && batch>1){
+                IntStream.range(0,batch).parallel().forEach(this::simulate);
+            } else {
+                for (int i = 0; i < batch; i++) simulate(i);
+            }
+            if (timed!=null){
+                long simulated=System.nanoTime();
+                timed.simulationTime+=simulated-phaseStart;
+                phaseStart=simulated;
+            }
+
+            //Backpropagation
+            for (int i = 0; i < batch; i++) {
+                backPropagation(leaves[i],results[i],playouts[i]);
+                leaves[i]=null;
+            }
+            if (timed!=null) timed.backpropagationTime+=System.nanoTime()-phaseStart;
+            playoutCount+=batch;
+            return batch;
+        }
+
+        private void simulate(int i){
+            if (results[i]==null) results[i]=randomSimulation(leaves[i],playouts[i]);
+            //No moves of an earlier playout may count for RAVE after a known result
+            else playouts[i].clear();
+        }
+
+        //Fresh root for a position, its piece is the player who moved last
+        private Node newRoot(Position position){
+            return newNode(position,opposite(position.sideToMove()));
+        }
+
+        //Takes over a subtree kept from another search
+        private Node adopt(Node tree){
+            nodeCount=tree.getSize();
+            peakNodes=Math.max(peakNodes,nodeCount);
+            return tree;
+        }
+
+        //Visits and win rate, for the piece to move, of each column at the root of the tree
+        private void statistics(Node tree, int[] visits, double[] winRates){
+            Arrays.fill(visits,0);
+            Arrays.fill(winRates,Double.NaN);
+            for (Node child : tree.getChildren()) {
+                visits[child.getMove()]=child.getVisit();
+                if (child.isProven()){
+                    winRates[child.getMove()]=provenValue(child);
+                } else if (child.getVisit()>0){
+                    winRates[child.getMove()]=child.getScore()/(double) child.getVisit();
+                }
+            }
+        }
+
+        private Node getLastTree(){
+            return lastTree;
+        }
+
+        /* Keeps the child of the tree that leads to the position as the root of a new tree and gives the
+           rest back to the free list. Returns null, dropping the whole tree, when no child matches
+         */
+        private Node promote(Node tree, Position position){
+            if (tree==null) return null;
+            Node promoted=null;
+            for (Node child : tree.getChildren()) {
+                if (promoted==null && child.getPosition().equals(position)){
+                    promoted=child;
+                } else {
+                    discard(child);
+                }
+            }
+            tree.getChildren().clear();
+            tree.addSize(1-tree.getSize());
+            discard(tree);
+            if (promoted!=null){
+                promoted.setParent(null);
+            }
+            return promoted;
+        }
+
+        //MCTS Required Methods
+
+        private Node selectNode(Node tree) {
+             /* Steps:
+                1. Repeatedly select most promising legal move
+                2. Move to that most promising node.
+                3. Stop if the current node is a leaf node
+              */
+
+            Node currentNode=tree;
+            while (currentNode.getChildren().size()!=0 && !currentNode.isProven()){
+                currentNode=findBestNodeWithUCT(currentNode);
+            }
+            return currentNode;
+        }
+
+        private Node expandNode(Node selectedNode) {
+            /* Steps:
+               1. Randomly choose one of possible moves
+               2. Create a child node according to that move.
+               3. Add this node to the selected node after SELECTION PHASE to expand search tree
+             */
+
+            Position position=selectedNode.getPosition();
+            boolean gameStatus=isTheGameOngoing(position); //True //Flase
+            //Pruning couldn't free enough nodes, keep sampling from the leaf
+            boolean full=maxNodes>0 && nodeCount+Board.NUM_OF_COLS>maxNodes;
+            if (!gameStatus || full){
+                return selectedNode;
+            }
+            else {
+                addChildren(selectedNode);
+                if (selectedNode.isProven()){
+                    return selectedNode;
+                }
+                if (settings.isProgressiveWidening()){
+                    //Only the widened children are candidates, start with the most promising one
+                    return findBestNodeWithUCT(selectedNode);
+                }
+                int randomIndex=random.nextInt(selectedNode.getChildren().size());
+                return selectedNode.getChildren().get(randomIndex);
+            }
+        }
+
+        //Adds a child per candidate move of an ongoing position, whatever the node cap
+        private void addChildren(Node node){
+            Position position=node.getPosition();
+            //Find the next Player
+            Piece nextPiece=opposite(node.getPiece());
+            int candidates=settings.isTactics() ? tacticalMoves(position,nextPiece) : position.legalMoves();
+            for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+                if ((candidates & (1<<col))==0) continue;
+                Node childNode = newNode(position.withMove(col,nextPiece), nextPiece);
+                childNode.setParent(node);
+                childNode.setMove(col);
+                childNode.setRow(position.height(col));
+                childNode.setProof(terminalProof(childNode));
+                node.addChild(childNode);
+            }
+            if (settings.isProgressiveWidening()){
+                //Most promising first, so that the widened children are always the first ones
+                node.getChildren().sort(Comparator.comparingDouble((Node child) -> -priority(node, child)));
+            }
+            resize(node,node.getChildren().size());
+            //A move that ends the game may decide the node, and its ancestors
+            prove(node);
+        }
+
+        private Piece randomSimulation(Node nodeToExplore, Playout playout) {
+            /* Steps:
+               1. Simulating game until it is finish (win/lost/draw), or for rolloutDepth moves
+               2. Moves are chosen randomly, the two players taking turns
+               3. Return simulation result, a cut off game is decided by a draw weighted by the static evaluation
+             */
+            Piece winner=playout.play(nodeToExplore.getPosition(),opposite(nodeToExplore.getPiece()));
+            if (winner==piece){
+                return piece;
+            }
+            else if (winner==opponent){
+                return opponent;
+            }
+            else {
+                return Piece.EMPTY; //Draw
+            }
+        }
+
+        private void backPropagation(Node nodeToExplore, Piece result, Playout playout) {
+             /* Steps:
+                 Update parent statistics after the simulation playout. For each visited node:
+                1. Visit count, already increased as virtual loss when the leaf was selected
+                2. Increase player score
+
+                this method will work until it reach the parent node
+              */
+
+            Node node=nodeToExplore;
+            while (node!=null){
+                if (node.getPiece() ==result){
+                    node.incrementScore();
+                }
+                node= node.getParent();
+            }
+
+            if (settings.isRave()){
+                updateAmaf(nodeToExplore,result,playout);
+            }
+        }
+
+        private void updateAmaf(Node nodeToExplore, Piece result, Playout playout) {
+            /* All moves as first: every move played after a node, in the tree or in the playout,
+               by the player to move at that node counts as if it had been played first from there.
+               With gravity a column means a different move at each height, so moves are told apart
+               by the cell they fill rather than by the column.
+             */
+            int depth=0;
+            for (Node node=nodeToExplore; node.getParent()!=null; node=node.getParent()){
+                depth++;
+            }
+            int length=depth+playout.getLength();
+            int[] moves=new int[length];
+            Node node=nodeToExplore;
+            for (int i = depth-1; i >= 0; i--) {
+                moves[i]=cell(node.getMove(),node.getRow());
+                node=node.getParent();
+            }
+            System.arraycopy(playout.getMoves(),0,moves,depth,playout.getLength());
+
+            node=nodeToExplore;
+            for (int d = depth; node!=null; d--) {
+                Piece mover=opposite(node.getPiece());
+                for (int i = d; i < length; i+=2) {
+                    node.updateAmaf(moves[i],mover==result);
+                }
+                node=node.getParent();
+            }
+        }
+
+        //The UTC Formula to find the best nod, among the children whose result isn't proven yet
+        private Node findBestNodeWithUCT(Node node) {
+            Node bestNode = findBestNodeWithUCT(node, widenedChildren(node));
+            //Every widened child is proven, the others are still open
+            return bestNode != null ? bestNode : findBestNodeWithUCT(node, node.getChildren().size());
+        }
+
+        //Among the first count children
+        private Node findBestNodeWithUCT(Node node, int count) {
+            Node bestNode = null;
+            double bestUCTValue = Double.NEGATIVE_INFINITY;
+            int parentVisit = node.getVisit();
+            double exploration = settings.explorationAt(parentVisit);
+            List<Node> children = node.getChildren();
+
+            for (int i = 0; i < count; i++) {
+                Node child = children.get(i);
+                if (child.isProven()) {
+                    continue;
+                }
+                int nodeVisit = child.getVisit();
+                double nodeWinScore = child.getScore();
+
+                if (nodeVisit == 0) {
+                    return child; // Return the  node immediately if its not visited yet
+                }
+
+                double value = nodeWinScore / (double) nodeVisit;
+                int cell = cell(child.getMove(), child.getRow());
+                if (settings.isRave() && node.getAmafVisit(cell) > 0) {
+                    //The AMAF estimate dominates while the child has few visits of its own
+                    double k = settings.getRaveEquivalence();
+                    double beta = Math.sqrt(k / (3 * nodeVisit + k));
+                    value = (1 - beta) * value + beta * node.getAmafValue(cell);
+                }
+
+                double uctValue = value
+                        + exploration * Math.sqrt(Math.log(parentVisit) / (double) nodeVisit);
+
+                if (uctValue > bestUCTValue) {
+                    bestUCTValue = uctValue;
+                    bestNode = child;
+                }
+            }
+
+            return bestNode;
+        }
+
+        /* With progressive widening only the most promising children are considered, more as the node gets visited.
+           The children are sorted by priority when they are added, the widened ones are the first ones.
+         */
+        private int widenedChildren(Node node) {
+            int size = node.getChildren().size();
+            if (!settings.isProgressiveWidening()) {
+                return size;
+            }
+            int allowed = (int) Math.ceil(settings.getWideningFactor() * Math.pow(node.getVisit(), settings.getWideningExponent()));
+            return Math.min(size, Math.max(1, allowed));
+        }
+
+        //AMAF value when the node is expanded again after pruning, otherwise center columns first as they take part in more lines
+        private double priority(Node parent, Node child) {
+            double center = -Math.abs(child.getMove() - (Board.NUM_OF_COLS - 1) / 2.0) / Board.NUM_OF_COLS;
+            int cell = cell(child.getMove(), child.getRow());
+            if (settings.isRave() && parent.getAmafVisit(cell) > 0) {
+                return parent.getAmafValue(cell) + center / 100;
+            }
+            return center;
+        }
+
+
+        /* Memory bound: once the tree is full, the least visited expanded nodes lose their children
+           until the tree is back to PRUNE_TARGET of the cap. A pruned node keeps its own statistics
+           and is simply expanded again if the search comes back to it. The root is never pruned.
+         */
+        private static final double PRUNE_TARGET = 0.75;
+
+        private void prune(Node tree) {
+            List<Node> expanded=new ArrayList<>();
+            ArrayDeque<Node> stack=new ArrayDeque<>(tree.getChildren());
+            while (!stack.isEmpty()){
+                Node node=stack.pop();
+                if (node.getChildren().isEmpty()) continue;
+                expanded.add(node);
+                for (Node child : node.getChildren()) stack.push(child);
+            }
+            expanded.sort(Comparator.comparingInt(Node::getVisit));
+            int target=(int) (maxNodes*PRUNE_TARGET);
+            for (Node node : expanded) {
+                if (nodeCount<=target) break;
+                //Already gone with the subtree of a less visited ancestor
+                if (node.isReleased()) continue;
+                for (Node child : node.getChildren()) release(child,true);
+                node.getChildren().clear();
+                resize(node,1-node.getSize());
+            }
+        }
+
+        private Node newNode(Position position, Piece piece) {
+            Node node=freeNodes.poll();
+            if (node==null){
+                node=new Node(position,piece);
+                allocatedNodes++;
+            } else {
+                node.reset(position,piece);
+            }
+            nodeCount++;
+            peakNodes=Math.max(peakNodes,nodeCount);
+            return node;
+        }
+
+        //Adds delta to the subtree size of the node and its ancestors
+        private static void resize(Node node, int delta) {
+            for (; node!=null; node=node.getParent()) node.addSize(delta);
+        }
+
+        //A whole tree that is no longer needed. Walking it only pays off when the free list is used
+        private void discard(Node node) {
+            if (maxNodes>0){
+                release(node,false);
+            } else {
+                nodeCount-=node.getSize();
+            }
+        }
+
+        //Evicted nodes are the ones pruned to stay under the cap, not the ones of a finished search
+        private void release(Node node, boolean evicted) {
+            for (Node child : node.getChildren()) release(child,evicted);
+            node.release();
+            freeNodes.push(node);
+            nodeCount--;
+            if (evicted) evictions++;
+        }
+
+        /* MCTS-Solver: a node is proven once the result of its position with best play is known, for the
+           piece that moved into it. A move that ends the game is proven at once. The player to move at a
+           node wins if one of the children is a proven win for them, and loses once all of the children are
+           proven wins for the other side, a proven draw otherwise. Children left out by the tactical pre-pass
+           only ever lose, so the children the node has are enough to decide it.
+         */
+        private static byte terminalProof(Node node){
+            Position position=node.getPosition();
+            if (position.winner()==node.getPiece()) return Node.WIN;
+            return position.isTerminal() ? Node.DRAW : Node.UNPROVEN;
+        }
+
+        //Proves the node from its children if they decide it, then its ancestors in turn
+        private static void prove(Node node){
+            for (; node!=null && !node.isProven() && !node.getChildren().isEmpty(); node=node.getParent()){
+                byte proof=Node.WIN;
+                for (Node child : node.getChildren()) {
+                    if (child.getProof()==Node.WIN){
+                        proof=Node.LOSS;
+                        break;
+                    }
+                    if (child.getProof()==Node.UNPROVEN) proof=Node.UNPROVEN;
+                    else if (child.getProof()==Node.DRAW && proof==Node.WIN) proof=Node.DRAW;
+                }
+                if (proof==Node.UNPROVEN) return;
+                node.setProof(proof);
+            }
+        }
+
+        //The winner of a proven node's position with best play, EMPTY for a draw
+        private static Piece provenResult(Node node){
+            switch (node.getProof()){
+                case Node.WIN:
+                    return node.getPiece();
+                case Node.LOSS:
+                    return opposite(node.getPiece());
+                default:
+                    return Piece.EMPTY;
+            }
+        }
+
+        //1 win, 0.5 draw, 0 loss for the piece that moved into the proven node
+        private static double provenValue(Node node){
+            return node.getProof()==Node.WIN ? 1 : node.getProof()==Node.DRAW ? 0.5 : 0;
+        }
+
+        /* A proven win at once, otherwise the most visited move among those not proven to lose. Visits are what
+           the time managers and the analysis watch, so the move played is the one they saw leading.
+         */
+        private static Node bestChild(Node tree){
+            Node best=null;
+            for (Node child : tree.getChildren()) {
+                if (child.getProof()==Node.WIN) return child;
+                if (child.getProof()==Node.LOSS) continue;
+                if (best==null || child.getVisit()>best.getVisit()) best=child;
+            }
+            //Every move loses, the most visited one held out the longest in the search
+            return best!=null ? best : tree.getChildWithMaxVisit();
+        }
+
+        //Utility Methods
+
+        /* Tactical pre-pass, as a mask of the columns worth searching for the piece to move:
+           1. A move that wins at once is the only one
+           2. Otherwise an opponent threat must be blocked, if there are two of them the game is lost anyway
+           3. Otherwise moves that let the opponent win on top of them are left out, unless nothing else is left
+         */
+        private static int tacticalMoves(Position position, Piece toMove){
+            int wins=threats(position,toMove);
+            if (wins!=0){
+                return Integer.lowestOneBit(wins);
+            }
+            Piece opponent=opposite(toMove);
+            int blocks=threats(position,opponent);
+            if (blocks!=0){
+                return Integer.lowestOneBit(blocks);
+            }
+            int legal=position.legalMoves();
+            int safe=legal;
+            for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+                if ((legal & (1<<col))!=0 && position.withMove(col,toMove).isWinningMove(col,opponent)){
+                    safe&=~(1<<col);
+                }
+            }
+            return safe!=0 ? safe : legal;
+        }
+
+        //Columns where the piece would get four in a line
+        private static int threats(Position position, Piece piece){
+            int threats=0;
+            for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+                if (position.isWinningMove(col,piece)) threats|=1<<col;
+            }
+            return threats;
+        }
+
+
+
+        //This method is to check the game is finished or not
+        public boolean isTheGameOngoing(Position position){
+            return !position.isTerminal();
+        }
+
+        private static int cell(int col, int row) {
+            return col * Board.NUM_OF_ROWS + row;
+        }
+
+        private static Piece opposite(Piece piece) {
+            return (piece == Piece.BLUE) ? Piece.GREEN : Piece.BLUE;
+        }
+
+
+    }
+
+    /**
+     * Keeps searching a position on a background thread and reports the visits and win rate of every
+     * column to a listener, at most ten times a second. Analysing the next position keeps the part of
+     * the tree that leads to it, so following a game doesn't start from scratch on every move.
+     */
+    public static class Analyzer {
+
+        private static final long REFRESH_NANOS = 100_000_000L;
+        //Bounds of a search nobody stops: its tree size, and the playouts after which it rests
+        private static final int MAX_NODES = 500_000;
+        private static final int MAX_PLAYOUTS = 20_000_000;
+
+        public interface Listener {
+            //Called on the analysis thread. winRates are NaN for columns that weren't searched
+            void update(Position position, int[] visits, double[] winRates);
+        }
+
+        private final SearchSettings settings;
+        private final Listener listener;
+
+        private MCTS search;
+        private Node tree;
+        private Thread thread;
+        private volatile boolean stopped;
+
+        public Analyzer(SearchSettings settings, Listener listener) {
+            this.settings = new SearchSettings(settings);
+            if (this.settings.getMaxNodes() == 0) this.settings.setMaxNodes(MAX_NODES);
+            this.listener = listener;
+        }
+
+        //Starts analysing the position, in place of the previous one
+        public synchronized void analyze(Position position) {
+            stop();
+            Node promoted = search != null ? search.promote(tree, position) : null;
+            MCTS next = new MCTS(settings, position.sideToMove());
+            tree = promoted != null ? next.adopt(promoted) : next.newRoot(position);
+            search = next;
+            if (position.isTerminal()) return;
+
+            stopped = false;
+            MCTS analysis = search;
+            Node root = tree;
+            thread = new Thread(() -> run(analysis, root, position), "ai-analysis");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.start();
+        }
+
+        //Cancels the analysis, waiting for the thread so the tree can be reused
+        public synchronized void stop() {
+            if (thread == null) return;
+            stopped = true;
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+
+        private void run(MCTS analysis, Node root, Position position) {
+            int[] visits = new int[Board.NUM_OF_COLS];
+            double[] winRates = new double[Board.NUM_OF_COLS];
+            long lastUpdate = System.nanoTime();
+            //A proven root has nothing left to analyse
+            while (!stopped && root.getVisit() < MAX_PLAYOUTS && !root.isProven()) {
+                analysis.iterate(root, settings.getBatchSize());
+                if (System.nanoTime() - lastUpdate >= REFRESH_NANOS) {
+                    analysis.statistics(root, visits, winRates);
+                    listener.update(position, visits.clone(), winRates.clone());
+                    lastUpdate = System.nanoTime();
+                }
+            }
+            analysis.statistics(root, visits, winRates);
+            listener.update(position, visits, winRates);
+        }
+    }
+
+    /* A random playout on bitboards. Moves are found and played with a few bit operations on
+       primitive locals, only a playout cut off by the evaluator builds a Position again.
+     */
+    private static class Playout {
+        private static final long BOTTOM = bottomMask();
+        //Every cell of the board, sentinels excluded
+        private static final long PLAYABLE = BOTTOM * ((1L << Board.NUM_OF_ROWS) - 1);
+
+        private final SplittableRandom random;
+        private final int depth;
+        private final PatternEvaluator evaluator;
+
+        //Cells played, col * rows + row, used by RAVE
+        private final int[] moves = new int[Board.NUM_OF_COLS * Board.NUM_OF_ROWS];
+        private int length;
+
+        Playout(SplittableRandom random, int depth, PatternEvaluator evaluator) {
+            this.random = random;
+            this.depth = depth;
+            this.evaluator = evaluator;
+        }
+
+        //Plays from the position with nextPiece to move, returns the winner or EMPTY for a draw
+        Piece play(Position position, Piece nextPiece) {
+            length = 0;
+            Piece mover = nextPiece;
+            long own = position.getBits(mover);
+            long other = position.getMask() & ~own;
+            long mask = own | other;
+            if (Position.hasFour(other)) return opposite(mover);
+            if (Position.hasFour(own)) return mover;
+            while (true) {
+                if (depth > 0 && length == depth) {
+                    Position cut = mover == Piece.BLUE ? Position.of(own, other) : Position.of(other, own);
+                    return random.nextDouble() < evaluator.evaluate(cut, mover) ? mover : opposite(mover);
+                }
+                //The lowest empty cell of every column is mask + bottom, it is playable unless it is the sentinel
+                long open = (mask + BOTTOM) & PLAYABLE;
+                if (open == 0) return Piece.EMPTY;
+                for (int skip = random.nextInt(Long.bitCount(open)); skip > 0; skip--) open &= open - 1;
+                long bit = open & -open;
+                int index = Long.numberOfTrailingZeros(bit);
+                moves[length++] = index / Position.COLUMN_BITS * Board.NUM_OF_ROWS + index % Position.COLUMN_BITS;
+                own |= bit;
+                mask |= bit;
+                if (Position.hasFour(own)) return mover;
+                long swap = own;
+                own = other;
+                other = swap;
+                mover = opposite(mover);
+            }
+        }
+
+        void clear() {
+            length = 0;
+        }
+
+        int[] getMoves() {
+            return moves;
+        }
+
+        int getLength() {
+            return length;
+        }
+
+        private static long bottomMask() {
+            long mask = 0;
+            for (int col = 0; col < Board.NUM_OF_COLS; col++) mask |= Position.bit(col, 0);
+            return mask;
+        }
+
+        private static Piece opposite(Piece piece) {
+            return (piece == Piece.BLUE) ? Piece.GREEN : Piece.BLUE;
+        }
+    }
+
+    //Node
+    private static class Node{
+        //Proofs, for the piece that moved into the node
+        static final byte UNPROVEN = 0;
+        static final byte WIN = 1;
+        static final byte LOSS = 2;
+        static final byte DRAW = 3;
+
+        private Position position;
+
+        private int visit;
+
+        private int score;
+
+        private final List<Node> children = new ArrayList<>();
+
+        private Node parent= null;
+
+        private Piece piece;
+
+        private int move;
+
+        private int row;
+
+        //Nodes in the subtree of this node, itself included
+        private int size = 1;
+
+        //AMAF statistics of the moves played after this node by the player to move, indexed by cell. Only used with RAVE
+        private int[] amafVisits;
+        private int[] amafWins;
+
+        //Set while the node waits on the free list
+        private boolean released;
+
+        private byte proof = UNPROVEN;
+
+        public Node(Position position, Piece piece) {
+            this.setPosition(position);
+            this.setPiece(piece);
+        }
+
+        //Makes a node taken from the free list look new
+        public void reset(Position position, Piece piece) {
+            this.position = position;
+            this.piece = piece;
+            this.visit = 0;
+            this.score = 0;
+            this.parent = null;
+            this.move = 0;
+            this.row = 0;
+            this.released = false;
+            this.proof = UNPROVEN;
+            this.size = 1;
+            if (amafVisits != null) {
+                Arrays.fill(amafVisits, 0);
+                Arrays.fill(amafWins, 0);
+            }
+        }
+
+        public void release() {
+            children.clear();
+            parent = null;
+            position = null;
+            released = true;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void addSize(int delta) {
+            this.size += delta;
+        }
+
+        public boolean isReleased() {
+            return released;
+        }
+
+        //Null for a node that hasn't been expanded
+        public Node getChildWithMaxVisit() {
+            Node result = null;
+            for (Node child : getChildren()) {
+                if (result == null || child.getVisit() > result.getVisit()) {
+                    result = child;
+                }
+            }
+            return result;
+        }
+
+        public void addChild(Node node) {
+            getChildren().add(node);
+        }
+
+        public Position getPosition() {
+            return position;
+        }
+
+
+        public void setPosition(Position position) {
+            this.position = position;
+        }
+
+        public int getVisit() {
+            return visit;
+        }
+
+        public void incrementVisit() {
+            this.visit ++;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public void incrementScore() {
+            this.score ++;
+        }
+
+        public void setScore(int score) {
+            this.score = score;
+        }
+
+        public byte getProof() {
+            return proof;
+        }
+
+        public void setProof(byte proof) {
+            this.proof = proof;
+        }
+
+        public boolean isProven() {
+            return proof != UNPROVEN;
+        }
+
+        public List<Node> getChildren() {
+            return children;
+        }
+
+        public Node getParent() {
+            return parent;
+        }
+
+        public void setParent(Node parent) {
+            this.parent = parent;
+        }
+
+        public Piece getPiece() {
+            return piece;
+        }
+
+        public void setPiece(Piece piece) {
+            this.piece = piece;
+        }
+
+        public int getMove() {
+            return move;
+        }
+
+        public void setMove(int move) {
+            this.move = move;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public void setRow(int row) {
+            this.row = row;
+        }
+
+        public int getAmafVisit(int cell) {
+            return amafVisits == null ? 0 : amafVisits[cell];
+        }
+
+        public double getAmafValue(int cell) {
+            return amafWins[cell] / (double) amafVisits[cell];
+        }
+
+        public void updateAmaf(int cell, boolean win) {
+            if (amafVisits == null) {
+                amafVisits = new int[Board.NUM_OF_COLS * Board.NUM_OF_ROWS];
+                amafWins = new int[Board.NUM_OF_COLS * Board.NUM_OF_ROWS];
+            }
+            amafVisits[cell]++;
+            if (win) amafWins[cell]++;
+        }
+    }
+
+
+
+
+}
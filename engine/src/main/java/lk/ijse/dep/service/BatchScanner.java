@@ -0,0 +1,40 @@
+package lk.ijse.dep.service;
+
+/**
+ * Checks whole arrays of positions at once, for pipelines that go through thousands of boards, e.g.
+ * game records or analysis inputs. Positions are given as the bitboards of {@link Position#getBits(Piece)}.
+ *
+ * {@link #getInstance()} uses the Vector API implementation of the connect-four-vector module when it
+ * is on the class path and the JVM runs with {@code --add-modules jdk.incubator.vector}, and the
+ * scalar one otherwise. Both give the same results.
+ */
+public abstract class BatchScanner {
+
+    //Status of a position: the piece code of the winner, or one of these
+    public static final byte ONGOING = Piece.EMPTY_CODE;
+    public static final byte DRAW = 3;
+
+    private static final String VECTOR_SCANNER = "lk.ijse.dep.vector.VectorBatchScanner";
+    private static BatchScanner instance;
+
+    public static synchronized BatchScanner getInstance() {
+        if (instance == null) {
+            try {
+                instance = (BatchScanner) Class.forName(VECTOR_SCANNER).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                //Module not there or jdk.incubator.vector not added, the results are the same without it
+                instance = new ScalarBatchScanner();
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Writes the status of the first count positions, BLUE's line counting first when both sides
+     * have one, as in {@link Position#winner()}.
+     */
+    public abstract void status(long[] blue, long[] green, int count, byte[] status);
+
+    //Writes the playable columns of the first count positions, as in Position.legalMoves()
+    public abstract void legalMoves(long[] blue, long[] green, int count, byte[] legal);
+}
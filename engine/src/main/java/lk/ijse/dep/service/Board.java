@@ -11,5 +11,6 @@ public interface Board {
     void updateMove(int col,int row,Piece move);
     Winner findWinner();
     Piece[][] getPieces();
+    Position getPosition();
 
 }
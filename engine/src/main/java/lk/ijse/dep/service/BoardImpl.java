@@ -0,0 +1,72 @@
+package lk.ijse.dep.service;
+
+public class BoardImpl implements Board {
+
+    //Replaced by a new snapshot on every move, so it can be handed out without copying
+    private Position position;
+
+    //The winner of the current position once it has been looked for, cleared by every move
+    private Winner winner;
+
+    private final BoardUI boardUI;
+
+    public BoardImpl(BoardUI boardUI) {
+        this(boardUI, Position.EMPTY);
+    }
+
+    public BoardImpl(BoardUI boardUI, Position position) {
+        this.boardUI = boardUI;
+        this.position = position;
+    }
+
+    //A copy of the pieces, changing it doesn't change the board
+    public Piece[][] getPieces() {
+        return position.toPieces();
+    }
+
+    @Override
+    public Position getPosition() {
+        return position;
+    }
+
+    public BoardUI getBoardUI() {
+        return this.boardUI;
+    }
+
+    @Override
+    public int findNextAvailableSpot(int col) {
+        return position.isLegalMove(col) ? position.height(col) : -1;
+    }
+
+    @Override
+    public boolean isLegalMove(int col) {
+        return position.isLegalMove(col);
+    }
+
+    @Override
+    public boolean existLegalMoves() {
+        return position.hasLegalMoves();
+    }
+
+    @Override
+    public void updateMove(int col, Piece move) {
+        position = position.withMove(col, move);
+        winner = null;
+    }
+
+    @Override
+    public void updateMove(int col, int row, Piece move) {
+        position = position.with(col, row, move);
+        winner = null;
+    }
+
+    //The position finds the winning line on its bitboards, a Winner is only built once per position for the UI
+    @Override
+    public Winner findWinner() {
+        if (winner == null) {
+            winner = Winner.of(position.winningLine());
+        }
+        return winner;
+    }
+
+}
@@ -0,0 +1,32 @@
+package lk.ijse.dep.service;
+
+/**
+ * Splits what is left of the game's budget evenly over the moves the player may still have to make
+ * and always uses its share, the baseline for adaptive policies.
+ */
+public class FixedTimeManager implements TimeManager {
+
+    //Never plan for fewer moves than this, the game may go on longer than the board suggests
+    static final int MIN_MOVES_LEFT = 3;
+
+    @Override
+    public long target(Position position, long timeLeftNanos) {
+        return Math.max(0, timeLeftNanos) / movesLeft(position);
+    }
+
+    @Override
+    public Decision check(Status status) {
+        return status.getElapsedNanos() >= status.getTargetNanos() ? Decision.TARGET : Decision.CONTINUE;
+    }
+
+    //Moves left for the player to move if the board fills up
+    static int movesLeft(Position position) {
+        int empty = Board.NUM_OF_COLS * Board.NUM_OF_ROWS - position.moveCount();
+        return Math.max(MIN_MOVES_LEFT, (empty + 1) / 2);
+    }
+
+    @Override
+    public String toString() {
+        return "fixed";
+    }
+}
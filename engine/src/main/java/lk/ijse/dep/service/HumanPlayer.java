@@ -15,7 +15,7 @@ public class HumanPlayer extends Player{
             if (winner.getWinningPiece() != Piece.EMPTY) {
                 board.getBoardUI().notifyWinner(winner);
             } else if (!board.existLegalMoves()) {
-                board.getBoardUI().notifyWinner(new Winner(Piece.EMPTY));
+                board.getBoardUI().notifyWinner(Winner.NO_WINNER);
             }
         }
     }
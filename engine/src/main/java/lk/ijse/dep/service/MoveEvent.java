@@ -0,0 +1,29 @@
+package lk.ijse.dep.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event of a whole AI turn in {@link AiPlayer#movePiece(int)}: waiting for pondering to stop, the search and
+ * showing the move. The {@link SearchEvent} and the UI events of the turn happen inside it.
+ */
+@Name("lk.ijse.dep.Move")
+@Label("AI Move")
+@Category({"Connect Four", "AI"})
+@Description("A turn of the AI, from the human's move to the AI's move on the board")
+final class MoveEvent extends jdk.jfr.Event {
+
+    @Label("Move Number")
+    int moveNumber;
+
+    @Label("Chosen Column")
+    int move;
+
+    @Label("Time Left")
+    @Description("What is left of the game's time budget after the move, 0 without one")
+    @Timespan(Timespan.NANOSECONDS)
+    long timeLeft;
+}
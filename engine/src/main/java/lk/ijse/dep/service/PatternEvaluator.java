@@ -0,0 +1,173 @@
+package lk.ijse.dep.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Static evaluation learned from recorded games: a logistic model over a few board patterns.
+ *
+ * The features, all from the point of view of the piece to move, are a bias, one value per cell
+ * (+1 own piece, -1 opponent piece) and, for the 27 possible lines of four, how many lines hold
+ * 1, 2 or 3 own pieces and nothing else, and the same for the opponent.
+ * The weights are stored as a small binary table: the magic "C4EV", a version byte, the number of
+ * weights and the weights as floats.
+ */
+public class PatternEvaluator {
+
+    private static final byte[] MAGIC = {'C', '4', 'E', 'V'};
+    private static final int VERSION = 1;
+
+    private static final int CELLS = Board.NUM_OF_COLS * Board.NUM_OF_ROWS;
+
+    public static final int FEATURE_COUNT = 1 + CELLS + 3 + 3;
+    private static final int OWN_LINES = 1 + CELLS;
+    private static final int OPPONENT_LINES = OWN_LINES + 3;
+
+    private static final long[] LINES = lines();
+
+    private static final String DEFAULT_TABLE = "/eval/default.c4w";
+    private static PatternEvaluator defaultEvaluator;
+
+    private final float[] weights;
+
+    public PatternEvaluator(float[] weights) {
+        if (weights.length != FEATURE_COUNT)
+            throw new IllegalArgumentException("Expected " + FEATURE_COUNT + " weights but got " + weights.length);
+        this.weights = weights.clone();
+    }
+
+    //Evaluators with the same weights score every position the same
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(weights, ((PatternEvaluator) o).weights);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(weights);
+    }
+
+    //Tells tables apart in logged settings
+    @Override
+    public String toString() {
+        return equals(getDefault()) ? "default" : String.format(Locale.ROOT, "weights#%08x", hashCode());
+    }
+
+    //The table shipped with the engine, trained from self-play games
+    public static synchronized PatternEvaluator getDefault() {
+        if (defaultEvaluator == null) {
+            try (InputStream in = PatternEvaluator.class.getResourceAsStream(DEFAULT_TABLE)) {
+                if (in == null) throw new IOException("Missing resource " + DEFAULT_TABLE);
+                defaultEvaluator = load(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Can't load the default evaluation table", e);
+            }
+        }
+        return defaultEvaluator;
+    }
+
+    public static PatternEvaluator load(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        byte[] magic = new byte[MAGIC.length];
+        data.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) throw new IOException("Not an evaluation table");
+        int version = data.readUnsignedByte();
+        if (version != VERSION) throw new IOException("Unsupported evaluation table version: " + version);
+        float[] weights = new float[data.readUnsignedShort()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = data.readFloat();
+        }
+        return new PatternEvaluator(weights);
+    }
+
+    public void save(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(MAGIC);
+        data.writeByte(VERSION);
+        data.writeShort(weights.length);
+        for (float weight : weights) {
+            data.writeFloat(weight);
+        }
+        data.flush();
+    }
+
+    /**
+     * @return the estimated probability that the piece to move wins, a draw counting as half
+     */
+    public double evaluate(Position position, Piece toMove) {
+        long own = position.getBits(toMove);
+        long opponent = position.getMask() & ~own;
+        double z = weights[0];
+        long bits = position.getMask();
+        while (bits != 0) {
+            long bit = bits & -bits;
+            int index = Long.numberOfTrailingZeros(bit);
+            float weight = weights[1 + cell(index)];
+            z += (own & bit) != 0 ? weight : -weight;
+            bits ^= bit;
+        }
+        for (long line : LINES) {
+            int ownCount = Long.bitCount(own & line);
+            int opponentCount = Long.bitCount(opponent & line);
+            if (opponentCount == 0 && ownCount > 0 && ownCount < 4) {
+                z += weights[OWN_LINES + ownCount - 1];
+            } else if (ownCount == 0 && opponentCount > 0 && opponentCount < 4) {
+                z += weights[OPPONENT_LINES + opponentCount - 1];
+            }
+        }
+        return 1 / (1 + Math.exp(-z));
+    }
+
+    //Fills features with the inputs of the model, used to train it
+    public static void features(Position position, Piece toMove, double[] features) {
+        Arrays.fill(features, 0);
+        long own = position.getBits(toMove);
+        long opponent = position.getMask() & ~own;
+        features[0] = 1;
+        for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+            for (int row = 0; row < Board.NUM_OF_ROWS; row++) {
+                long bit = Position.bit(col, row);
+                if ((own & bit) != 0) features[1 + col * Board.NUM_OF_ROWS + row] = 1;
+                else if ((opponent & bit) != 0) features[1 + col * Board.NUM_OF_ROWS + row] = -1;
+            }
+        }
+        for (long line : LINES) {
+            int ownCount = Long.bitCount(own & line);
+            int opponentCount = Long.bitCount(opponent & line);
+            if (opponentCount == 0 && ownCount > 0 && ownCount < 4) {
+                features[OWN_LINES + ownCount - 1]++;
+            } else if (ownCount == 0 && opponentCount > 0 && opponentCount < 4) {
+                features[OPPONENT_LINES + opponentCount - 1]++;
+            }
+        }
+    }
+
+    //Bit index in a Position bitboard to cell index col * rows + row
+    private static int cell(int index) {
+        return (index / Position.COLUMN_BITS) * Board.NUM_OF_ROWS + index % Position.COLUMN_BITS;
+    }
+
+    private static long[] lines() {
+        long[] lines = new long[(Board.NUM_OF_ROWS - 3) * Board.NUM_OF_COLS + (Board.NUM_OF_COLS - 3) * Board.NUM_OF_ROWS];
+        int i = 0;
+        for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+            for (int row = 0; row + 3 < Board.NUM_OF_ROWS; row++) {
+                lines[i++] = Position.bit(col, row) | Position.bit(col, row + 1) | Position.bit(col, row + 2) | Position.bit(col, row + 3);
+            }
+        }
+        for (int row = 0; row < Board.NUM_OF_ROWS; row++) {
+            for (int col = 0; col + 3 < Board.NUM_OF_COLS; col++) {
+                lines[i++] = Position.bit(col, row) | Position.bit(col + 1, row) | Position.bit(col + 2, row) | Position.bit(col + 3, row);
+            }
+        }
+        return lines;
+    }
+}
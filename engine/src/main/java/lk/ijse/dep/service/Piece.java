@@ -0,0 +1,34 @@
+package lk.ijse.dep.service;
+
+public enum Piece {
+    GREEN,BLUE,EMPTY;
+
+    //Byte codes of the pieces, for packed values and the hot paths that would rather not touch the enum
+    public static final byte EMPTY_CODE = 0;
+    public static final byte BLUE_CODE = 1;
+    public static final byte GREEN_CODE = 2;
+
+    public byte code() {
+        switch (this) {
+            case BLUE:
+                return BLUE_CODE;
+            case GREEN:
+                return GREEN_CODE;
+            default:
+                return EMPTY_CODE;
+        }
+    }
+
+    public static Piece fromCode(int code) {
+        switch (code) {
+            case EMPTY_CODE:
+                return EMPTY;
+            case BLUE_CODE:
+                return BLUE;
+            case GREEN_CODE:
+                return GREEN;
+            default:
+                throw new IllegalArgumentException("Not a piece code: " + code);
+        }
+    }
+}
@@ -10,4 +10,8 @@ public abstract class Player {
 
     public abstract void movePiece(int col);
 
+    //Releases whatever the player runs in the background, called when its game ends or the window closes
+    public void dispose() {
+    }
+
 }
@@ -0,0 +1,298 @@
+package lk.ijse.dep.service;
+
+/**
+ * Immutable snapshot of the pieces on the board, safe to share between threads and to use as a map key.
+ *
+ * The pieces of each side are stored as bitboards: each column takes 6 bits of a long, 5 rows and an
+ * empty sentinel bit on top, bit 0 being the bottom of column 0. The next free row of every column is
+ * packed 3 bits per column in an int, so playing a move is a couple of bit operations.
+ * The move count, the playable columns and whether the game is over are kept up to date by every
+ * move as well, so the questions the search keeps asking don't rescan the board.
+ */
+public final class Position {
+
+    public static final int COLUMN_BITS = Board.NUM_OF_ROWS + 1;
+
+    public static final Position EMPTY = new Position(0, 0, 0);
+
+    private static final int HEIGHT_BITS = 3;
+    private static final int HEIGHT_MASK = (1 << HEIGHT_BITS) - 1;
+    private static final long COLUMN_MASK = (1L << Board.NUM_OF_ROWS) - 1;
+    private static final int ALL_COLUMNS = (1 << Board.NUM_OF_COLS) - 1;
+    //Bottom cell of every column
+    private static final long BOTTOM = bottom();
+
+    private static final byte ONGOING = 0;
+    private static final byte BLUE_WON = 1;
+    private static final byte GREEN_WON = 2;
+    private static final byte DRAW = 3;
+
+    private final long blue;
+    private final long green;
+    private final int heights;
+    private final byte moves;
+    //Bit i is set while column i can be played
+    private final byte legal;
+    private final byte status;
+
+    //Works everything out from the pieces, for positions not reached by a single move
+    private Position(long blue, long green, int heights) {
+        this.blue = blue;
+        this.green = green;
+        this.heights = heights;
+        this.moves = (byte) Long.bitCount(blue | green);
+        int legal = 0;
+        for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+            if (((heights >>> (col * HEIGHT_BITS)) & HEIGHT_MASK) < Board.NUM_OF_ROWS) legal |= 1 << col;
+        }
+        this.legal = (byte) legal;
+        this.status = hasFour(blue) ? BLUE_WON : hasFour(green) ? GREEN_WON : legal == 0 ? DRAW : ONGOING;
+    }
+
+    private Position(long blue, long green, int heights, int moves, int legal, byte status) {
+        this.blue = blue;
+        this.green = green;
+        this.heights = heights;
+        this.moves = (byte) moves;
+        this.legal = (byte) legal;
+        this.status = status;
+    }
+
+    //Builds a position from a pieces[col][row] array like the one of Board.getPieces()
+    public static Position of(Piece[][] pieces) {
+        Position position = EMPTY;
+        for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+            for (int row = 0; row < Board.NUM_OF_ROWS; row++) {
+                if (pieces[col][row] != Piece.EMPTY) position = position.with(col, row, pieces[col][row]);
+            }
+        }
+        return position;
+    }
+
+    //Builds a position from the bitboards of both sides, pieces stacked from the bottom of each column
+    public static Position of(long blue, long green) {
+        long mask = blue | green;
+        int heights = 0;
+        for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+            long column = (mask >>> (col * COLUMN_BITS)) & COLUMN_MASK;
+            heights |= Long.bitCount(column) << (col * HEIGHT_BITS);
+        }
+        return new Position(blue, green, heights);
+    }
+
+    public Piece pieceAt(int col, int row) {
+        long bit = bit(col, row);
+        if ((blue & bit) != 0) return Piece.BLUE;
+        if ((green & bit) != 0) return Piece.GREEN;
+        return Piece.EMPTY;
+    }
+
+    public byte codeAt(int col, int row) {
+        long bit = bit(col, row);
+        if ((blue & bit) != 0) return Piece.BLUE_CODE;
+        if ((green & bit) != 0) return Piece.GREEN_CODE;
+        return Piece.EMPTY_CODE;
+    }
+
+    //Next free row of the column, Board.NUM_OF_ROWS when the column is full
+    public int height(int col) {
+        return (heights >>> (col * HEIGHT_BITS)) & HEIGHT_MASK;
+    }
+
+    public boolean isLegalMove(int col) {
+        return height(col) < Board.NUM_OF_ROWS;
+    }
+
+    //Bit i is set when column i can still be played
+    public int legalMoves() {
+        return legal & ALL_COLUMNS;
+    }
+
+    public boolean hasLegalMoves() {
+        return legal != 0;
+    }
+
+    public int moveCount() {
+        return moves;
+    }
+
+    //BLUE plays first, so it is BLUE's turn whenever both sides have the same number of pieces
+    public Piece sideToMove() {
+        return Long.bitCount(blue) == Long.bitCount(green) ? Piece.BLUE : Piece.GREEN;
+    }
+
+    public Position withMove(int col) {
+        return withMove(col, sideToMove());
+    }
+
+    public Position withMove(int col, Piece piece) {
+        int row = height(col);
+        if (row >= Board.NUM_OF_ROWS) throw new IllegalArgumentException("No space available within the column: " + col);
+        if (piece == Piece.EMPTY) throw new IllegalArgumentException("Can't play " + piece);
+        long bit = bit(col, row);
+        int nextHeights = heights + (1 << (col * HEIGHT_BITS));
+        int nextLegal = row + 1 == Board.NUM_OF_ROWS ? legal & ~(1 << col) : legal;
+        long nextBlue = piece == Piece.BLUE ? blue | bit : blue;
+        long nextGreen = piece == Piece.GREEN ? green | bit : green;
+        //Only the piece that moved can have a new line, BLUE's line wins when both have one as in winner()
+        byte nextStatus;
+        if (status == BLUE_WON) nextStatus = BLUE_WON;
+        else if (hasFour(piece == Piece.BLUE ? nextBlue : nextGreen)) nextStatus = piece == Piece.BLUE ? BLUE_WON : GREEN_WON;
+        else if (status == GREEN_WON) nextStatus = GREEN_WON;
+        else nextStatus = nextLegal == 0 ? DRAW : ONGOING;
+        return new Position(nextBlue, nextGreen, nextHeights, moves + 1, nextLegal, nextStatus);
+    }
+
+    //Sets a single cell, gravity is not enforced. The height of the column becomes its lowest empty row
+    public Position with(int col, int row, Piece piece) {
+        long bit = bit(col, row);
+        long nextBlue = piece == Piece.BLUE ? blue | bit : blue & ~bit;
+        long nextGreen = piece == Piece.GREEN ? green | bit : green & ~bit;
+        long column = ((nextBlue | nextGreen) >>> (col * COLUMN_BITS)) & COLUMN_MASK;
+        int height = Long.numberOfTrailingZeros(~column);
+        int shift = col * HEIGHT_BITS;
+        int nextHeights = (heights & ~(HEIGHT_MASK << shift)) | (height << shift);
+        return new Position(nextBlue, nextGreen, nextHeights);
+    }
+
+    public long getBits(Piece piece) {
+        if (piece == Piece.BLUE) return blue;
+        if (piece == Piece.GREEN) return green;
+        return ~(blue | green);
+    }
+
+    //All occupied cells
+    public long getMask() {
+        return blue | green;
+    }
+
+    public Piece winner() {
+        if (status == BLUE_WON) return Piece.BLUE;
+        if (status == GREEN_WON) return Piece.GREEN;
+        return Piece.EMPTY;
+    }
+
+    /**
+     * The first line of four, packed as in {@link Winner#pack}, 0 when nobody has won. Vertical lines
+     * come first, by column then row, and then horizontal ones, by row then column: the order the
+     * board used to scan the grid in.
+     */
+    public int winningLine() {
+        if (status != BLUE_WON && status != GREEN_WON) return 0;
+        long vertical = fours(blue, 1) | fours(green, 1);
+        if (vertical != 0) {
+            int index = Long.numberOfTrailingZeros(vertical);
+            int col = index / COLUMN_BITS;
+            int row = index % COLUMN_BITS;
+            return Winner.pack(pieceAt(col, row), col, row, col, row + 3);
+        }
+        long horizontal = fours(blue, COLUMN_BITS) | fours(green, COLUMN_BITS);
+        for (int row = 0; row < Board.NUM_OF_ROWS; row++) {
+            long inRow = horizontal & (BOTTOM << row);
+            if (inRow != 0) {
+                int col = Long.numberOfTrailingZeros(inRow) / COLUMN_BITS;
+                return Winner.pack(pieceAt(col, row), col, row, col + 3, row);
+            }
+        }
+        return 0;
+    }
+
+    //The first cell of every line of four in the direction of shift
+    private static long fours(long bits, int shift) {
+        long m = bits & (bits >>> shift);
+        return m & (m >>> (2 * shift));
+    }
+
+    public boolean isTerminal() {
+        return status != ONGOING;
+    }
+
+    //True when playing the column would give the piece four in a line
+    public boolean isWinningMove(int col, Piece piece) {
+        return isLegalMove(col) && hasFour(getBits(piece) | bit(col, height(col)));
+    }
+
+    /**
+     * Unique key for positions reached by legal play (pieces stacked from the bottom): each column of
+     * blue + mask holds a distinct value for each possible content of that column. Fits in 36 bits.
+     */
+    public long key() {
+        return blue + (blue | green);
+    }
+
+    //The same position seen in a mirror, column col becoming column NUM_OF_COLS - 1 - col
+    public Position mirror() {
+        return of(mirror(blue), mirror(green));
+    }
+
+    /**
+     * Key shared by a position and its mirror image: the smaller of their two keys. The position is in the
+     * canonical orientation when this is its own {@link #key()}.
+     */
+    public long canonicalKey() {
+        return Math.min(key(), mirror(blue) + mirror(blue | green));
+    }
+
+    private static long mirror(long bits) {
+        long mirrored = 0;
+        for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+            mirrored |= ((bits >>> (col * COLUMN_BITS)) & COLUMN_MASK) << ((Board.NUM_OF_COLS - 1 - col) * COLUMN_BITS);
+        }
+        return mirrored;
+    }
+
+    public Piece[][] toPieces() {
+        Piece[][] pieces = new Piece[Board.NUM_OF_COLS][Board.NUM_OF_ROWS];
+        for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+            for (int row = 0; row < Board.NUM_OF_ROWS; row++) {
+                pieces[col][row] = pieceAt(col, row);
+            }
+        }
+        return pieces;
+    }
+
+    private static long bottom() {
+        long bottom = 0;
+        for (int col = 0; col < Board.NUM_OF_COLS; col++) bottom |= bit(col, 0);
+        return bottom;
+    }
+
+    //Four in a line, vertically (shift 1) or horizontally (shift COLUMN_BITS). There are no diagonals in this game
+    public static boolean hasFour(long bits) {
+        long m = bits & (bits >>> 1);
+        if ((m & (m >>> 2)) != 0) return true;
+        m = bits & (bits >>> COLUMN_BITS);
+        return (m & (m >>> (2 * COLUMN_BITS))) != 0;
+    }
+
+    public static long bit(int col, int row) {
+        return 1L << (col * COLUMN_BITS + row);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Position)) return false;
+        Position position = (Position) o;
+        return blue == position.blue && green == position.green;
+    }
+
+    @Override
+    public int hashCode() {
+        long h = blue * 0x9E3779B97F4A7C15L ^ green;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int row = Board.NUM_OF_ROWS - 1; row >= 0; row--) {
+            for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+                Piece piece = pieceAt(col, row);
+                sb.append(piece == Piece.BLUE ? 'B' : piece == Piece.GREEN ? 'G' : '.');
+            }
+            if (row > 0) sb.append('/');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package lk.ijse.dep.service;
+
+/**
+ * One position at a time with plain long arithmetic, the fallback of {@link BatchScanner}.
+ * The ranges are exposed so vector implementations can finish the positions that don't fill a vector.
+ */
+public class ScalarBatchScanner extends BatchScanner {
+
+    //All the cells of the board, the sentinel bits left out
+    public static final long FULL = full();
+    public static final long BOTTOM = FULL & (FULL ^ (FULL << 1));
+
+    @Override
+    public void status(long[] blue, long[] green, int count, byte[] status) {
+        status(blue, green, 0, count, status);
+    }
+
+    @Override
+    public void legalMoves(long[] blue, long[] green, int count, byte[] legal) {
+        legalMoves(blue, green, 0, count, legal);
+    }
+
+    public static void status(long[] blue, long[] green, int from, int to, byte[] status) {
+        for (int i = from; i < to; i++) {
+            long b = blue[i];
+            long g = green[i];
+            status[i] = Position.hasFour(b) ? Piece.BLUE_CODE
+                    : Position.hasFour(g) ? Piece.GREEN_CODE
+                    : (b | g) == FULL ? DRAW : ONGOING;
+        }
+    }
+
+    public static void legalMoves(long[] blue, long[] green, int from, int to, byte[] legal) {
+        for (int i = from; i < to; i++) {
+            long free = freeCells(blue[i] | green[i]);
+            int columns = 0;
+            for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+                columns |= (int) ((free >>> (col * (Position.COLUMN_BITS - 1))) & (1L << col));
+            }
+            legal[i] = (byte) columns;
+        }
+    }
+
+    //Bottom bit of every column with a free cell: the column can be played, like Position.isLegalMove()
+    public static long freeCells(long mask) {
+        long free = ~mask & FULL;
+        long free2 = free | (free >>> 1);
+        return (free2 | (free2 >>> 2) | (free >>> 4)) & BOTTOM;
+    }
+
+    private static long full() {
+        long full = 0;
+        for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+            for (int row = 0; row < Board.NUM_OF_ROWS; row++) full |= Position.bit(col, row);
+        }
+        return full;
+    }
+
+    @Override
+    public String toString() {
+        return "scalar";
+    }
+}
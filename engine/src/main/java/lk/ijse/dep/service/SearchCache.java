@@ -0,0 +1,251 @@
+package lk.ijse.dep.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Search results shared by every AiPlayer of the JVM, so that games going through the same positions don't
+ * search them again. Enabled per search with the setting {@code sharedCache=true}.
+ *
+ * A result is stored with the settings and the budget it was searched with, its playouts, and is only returned to
+ * searches with the same settings that would not spend more. Settings that don't change what a search finds, such
+ * as the seed, don't matter. A position and its mirror image share one entry, the move being mirrored as needed.
+ *
+ * The cache holds a fixed number of results, {@code connect4.cache.size} for the shared one. It is split in
+ * segments locked on their own, each evicting its least recently used result. A TinyLFU admission filter keeps
+ * a new result out when its position was asked for less often than the one it would evict, so a burst of one-off
+ * positions can't flush the common ones. The counters of hits, saved search time and lookup latency are reported
+ * by {@link #toString()}.
+ */
+public class SearchCache {
+
+    public static final int DEFAULT_CAPACITY = 65536;
+    //Budget of a proven result, no search can do better
+    public static final int PROVEN = Integer.MAX_VALUE;
+
+    private static final int SEGMENT_BITS = 4;
+
+    private static SearchCache shared;
+
+    private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder savedNanos = new LongAdder();
+    private final LongAdder lookupNanos = new LongAdder();
+
+    public SearchCache(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("The cache must hold at least one result: " + capacity);
+        int segmentCapacity = (capacity + segments.length - 1) / segments.length;
+        for (int i = 0; i < segments.length; i++) segments[i] = new Segment(segmentCapacity);
+    }
+
+    public static synchronized SearchCache getShared() {
+        if (shared == null) shared = new SearchCache(Integer.getInteger("connect4.cache.size", DEFAULT_CAPACITY));
+        return shared;
+    }
+
+    /**
+     * @return the result stored for the position, its move oriented like the position, when it was searched
+     * with the same settings and at least their iterations, otherwise null. Cached results carry no visits
+     */
+    public SearchResult get(Position position, SearchSettings settings) {
+        long start = System.nanoTime();
+        long key = position.canonicalKey();
+        long fingerprint = settings.fingerprint();
+        long hash = hash(key, fingerprint);
+        Segment segment = segment(hash);
+        Entry entry;
+        synchronized (segment) {
+            segment.sketch.increment(hash);
+            entry = segment.entries.get(hash);
+        }
+        SearchResult result = null;
+        if (entry != null && entry.matches(key, fingerprint) && entry.budget >= settings.getIterations()) {
+            hits.increment();
+            savedNanos.add(entry.nanos);
+            result = new SearchResult(orient(position, key, entry.move), entry.value, new int[Board.NUM_OF_COLS]);
+        } else {
+            misses.increment();
+        }
+        lookupNanos.add(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Stores the result of a search of the position with the given settings, unless a result of a larger budget
+     * is already there.
+     *
+     * @param budget playouts behind the result, {@link #PROVEN} for a proven one
+     * @param nanos  time the search took
+     */
+    public void put(Position position, SearchSettings settings, SearchResult result, int budget, long nanos) {
+        long key = position.canonicalKey();
+        long fingerprint = settings.fingerprint();
+        long hash = hash(key, fingerprint);
+        Entry entry = new Entry(key, fingerprint, orient(position, key, result.getMove()), result.getValue(), budget, nanos);
+        Segment segment = segment(hash);
+        synchronized (segment) {
+            Entry old = segment.entries.get(hash);
+            if (old != null) {
+                //Another position or other settings with the same hash, the newer result wins
+                if (!old.matches(key, fingerprint) || budget >= old.budget) segment.entries.put(hash, entry);
+                return;
+            }
+            if (segment.entries.size() >= segment.capacity) {
+                Iterator<Map.Entry<Long, Entry>> eldest = segment.entries.entrySet().iterator();
+                long victim = eldest.next().getKey();
+                if (segment.sketch.frequency(hash) <= segment.sketch.frequency(victim)) {
+                    rejections.increment();
+                    return;
+                }
+                eldest.remove();
+                evictions.increment();
+            }
+            segment.entries.put(hash, entry);
+        }
+        stores.increment();
+    }
+
+    //A move of the canonical orientation is a move of the position once mirrored, and the other way round
+    private static int orient(Position position, long canonicalKey, int move) {
+        return position.key() == canonicalKey ? move : Board.NUM_OF_COLS - 1 - move;
+    }
+
+    //Entries are looked up by this hash of the position and the settings, and checked against both
+    private static long hash(long key, long fingerprint) {
+        long hash = (key ^ fingerprint) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 32);
+    }
+
+    private Segment segment(long hash) {
+        return segments[(int) (hash >>> (64 - SEGMENT_BITS))];
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    //Search time the hits would have taken, as measured when their results were stored
+    public long getSavedNanos() {
+        return savedNanos.sum();
+    }
+
+    public double getHitRate() {
+        long lookups = getHits() + getMisses();
+        return lookups == 0 ? 0 : getHits() / (double) lookups;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        long lookups = getHits() + getMisses();
+        return String.format(Locale.ROOT, "%d results, %d hits of %d lookups (%.1f%%), %.0f ms of search saved, %.0f ns per lookup, %d stored, %d evicted, %d kept out",
+                size(), getHits(), lookups, getHitRate() * 100, getSavedNanos() / 1e6,
+                lookupNanos.sum() / (double) Math.max(1, lookups), stores.sum(), getEvictions(), getRejections());
+    }
+
+    private static final class Entry {
+        private final long key;
+        private final long fingerprint;
+        private final int move;
+        private final double value;
+        private final int budget;
+        private final long nanos;
+
+        private Entry(long key, long fingerprint, int move, double value, int budget, long nanos) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.move = move;
+            this.value = value;
+            this.budget = budget;
+            this.nanos = nanos;
+        }
+
+        private boolean matches(long key, long fingerprint) {
+            return this.key == key && this.fingerprint == fingerprint;
+        }
+    }
+
+    private static final class Segment {
+        private final int capacity;
+        //In access order, the eldest entry is the least recently used one
+        private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final FrequencySketch sketch;
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+            this.sketch = new FrequencySketch(capacity);
+        }
+    }
+
+    /* Count-min sketch of how often positions were asked for: 4 rows of saturating 4 bit counters. All the
+       counters are halved every 10 lookups per cached result, so old popularity fades away.
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L};
+        private static final int MAX_COUNT = 15;
+
+        private final byte[] counters;
+        private final int width;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(int capacity) {
+            width = Integer.highestOneBit(Math.max(16, capacity * 2 - 1)) << 1;
+            counters = new byte[SEEDS.length * width];
+            sampleSize = 10 * capacity;
+        }
+
+        private void increment(long hash) {
+            for (int row = 0; row < SEEDS.length; row++) {
+                int index = index(hash, row);
+                if (counters[index] < MAX_COUNT) counters[index]++;
+            }
+            if (++additions >= sampleSize) {
+                for (int i = 0; i < counters.length; i++) counters[i] >>= 1;
+                additions /= 2;
+            }
+        }
+
+        private int frequency(long hash) {
+            int frequency = MAX_COUNT;
+            for (int row = 0; row < SEEDS.length; row++) {
+                frequency = Math.min(frequency, counters[index(hash, row)]);
+            }
+            return frequency;
+        }
+
+        private int index(long hash, int row) {
+            long h = (hash ^ SEEDS[row]) * SEEDS[row];
+            return row * width + ((int) (h >>> 32) & (width - 1));
+        }
+    }
+}
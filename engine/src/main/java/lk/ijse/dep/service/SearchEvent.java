@@ -0,0 +1,77 @@
+package lk.ijse.dep.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event of one search of the AI, from the position to the chosen move. The time of the MCTS phases is only
+ * measured while the event is recorded.
+ */
+@Name("lk.ijse.dep.Search")
+@Label("AI Search")
+@Category({"Connect Four", "AI"})
+@Description("A search of the AI for a move, with the time of each MCTS phase")
+final class SearchEvent extends jdk.jfr.Event {
+
+    @Label("Piece")
+    String piece;
+
+    @Label("Move Number")
+    int moveNumber;
+
+    @Label("Source")
+    @Description("search, tactics, book or cache")
+    String source;
+
+    @Label("Chosen Column")
+    int move;
+
+    @Label("Value")
+    double value;
+
+    @Label("Proven")
+    boolean proven;
+
+    @Label("Iteration Budget")
+    int iterations;
+
+    @Label("Time Left")
+    @Timespan(Timespan.NANOSECONDS)
+    long timeLeft;
+
+    @Label("Playouts")
+    @Description("Playouts run by this search")
+    long playouts;
+
+    @Label("Reused Playouts")
+    @Description("Playouts of the tree kept from pondering")
+    long reusedPlayouts;
+
+    @Label("Nodes Allocated")
+    long nodesAllocated;
+
+    @Label("Peak Nodes")
+    int peakNodes;
+
+    @Label("Evictions")
+    long evictions;
+
+    @Label("Selection")
+    @Timespan(Timespan.NANOSECONDS)
+    long selectionTime;
+
+    @Label("Expansion")
+    @Timespan(Timespan.NANOSECONDS)
+    long expansionTime;
+
+    @Label("Simulation")
+    @Timespan(Timespan.NANOSECONDS)
+    long simulationTime;
+
+    @Label("Backpropagation")
+    @Timespan(Timespan.NANOSECONDS)
+    long backpropagationTime;
+}
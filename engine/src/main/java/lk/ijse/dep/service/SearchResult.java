@@ -0,0 +1,61 @@
+package lk.ijse.dep.service;
+
+import java.util.Arrays;
+
+/**
+ * Outcome of a search: the chosen column, its value for the piece that moves
+ * (1 win, 0.5 draw, 0 loss, or the observed win rate for MCTS) and the visits per column.
+ * MCTS also reports the largest size its tree reached and how many nodes were evicted to stay under the cap.
+ */
+public class SearchResult {
+
+    private final int move;
+    private final double value;
+    private final int[] visits;
+    private final int peakNodes;
+    private final long evictions;
+
+    public SearchResult(int move, double value, int[] visits) {
+        this(move, value, visits, 0, 0);
+    }
+
+    public SearchResult(int move, double value, int[] visits, int peakNodes, long evictions) {
+        this.move = move;
+        this.value = value;
+        this.visits = visits;
+        this.peakNodes = peakNodes;
+        this.evictions = evictions;
+    }
+
+    public int getMove() {
+        return move;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    //Indexed by column, all zero for engines that don't sample
+    public int[] getVisits() {
+        return visits;
+    }
+
+    public int getPeakNodes() {
+        return peakNodes;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchResult{" +
+                "move=" + move +
+                ", value=" + value +
+                ", visits=" + Arrays.toString(visits) +
+                ", peakNodes=" + peakNodes +
+                ", evictions=" + evictions +
+                '}';
+    }
+}
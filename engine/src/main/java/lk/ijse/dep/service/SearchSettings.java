@@ -0,0 +1,441 @@
+package lk.ijse.dep.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Tuning knobs of the AiPlayer search. The defaults keep the budget and exploration of the original engine:
+ * 4000 iterations of UCT with a constant exploration of 1.41, without RAVE, widening, a node cap or cut short
+ * playouts. Two defaults differ from it:
+ * - tactics=true, immediate wins and forced blocks are played without a search
+ * - ponderIterations=40000, the AiPlayer keeps searching on the human's time
+ * {@code tactics=false,ponderIterations=0} turns both off. Whatever the settings, the search also differs from
+ * the original in proving won and lost nodes and in playing the most visited move where the original played
+ * the one with the most wins.
+ *
+ * Settings can also be given as text, e.g. {@code "iterations=2000,rave=true"}, see {@link #parse(String)}.
+ */
+public class SearchSettings {
+
+    public static final int MIN_NODES = 64;
+
+    //Time managers keep no state, so one instance serves every search that doesn't set its own
+    private static final TimeManager DEFAULT_TIME_MANAGER = new AdaptiveTimeManager();
+
+    private int iterations = 4000;
+
+    //Exploration schedule: decays from explorationConstant towards explorationMin, halving the gap
+    //after explorationHalfLife parent visits. A half life of 0 keeps the constant.
+    private double explorationConstant = 1.41;
+    private double explorationMin = 0.5;
+    private int explorationHalfLife = 0;
+
+    //RAVE/AMAF: blend each child's value with the all-moves-as-first statistics of its parent
+    private boolean rave;
+    private int raveEquivalence = 50;
+
+    //Progressive widening: a node with n visits only considers its best wideningFactor * n^wideningExponent children
+    private boolean progressiveWidening;
+    private double wideningFactor = 2;
+    private double wideningExponent = 0.5;
+
+    //Hard cap on the nodes of the search tree, the least visited subtrees are pruned to stay under it. 0 is unbounded
+    private int maxNodes;
+
+    //Leaf batching: this many leaves are selected under virtual loss, then their playouts run together
+    private int batchSize = 1;
+    private boolean parallelPlayouts;
+
+    //Playouts the AiPlayer may run on the human's time after its own move, 0 turns pondering off
+    private int ponderIterations = 40000;
+
+    //Seed of the search's random numbers, the same seed and settings always give the same move. Null seeds at random
+    private Long seed;
+
+    //Tactical pre-pass: play immediate wins and forced blocks at once, skip moves that hand the opponent a win
+    private boolean tactics = true;
+
+    //Playouts stop after this many random moves and the evaluator scores the position, 0 plays them to the end
+    private int rolloutDepth;
+    private PatternEvaluator evaluator;
+
+    //Time budget of the AiPlayer for a whole game in milliseconds, spent as the time manager decides.
+    //0 searches a fixed number of iterations per move instead
+    private long gameTime;
+    private TimeManager timeManager;
+
+    //Opening book: the best move stored for a position is played without a search. Null searches every position
+    private TranspositionTable book;
+
+    //Share results with the other searches of the JVM through SearchCache.getShared(), only those searched with
+    //the same settings and only without a game time: a clocked search has no fixed budget to compare
+    private boolean sharedCache;
+
+    public SearchSettings() {
+    }
+
+    public SearchSettings(SearchSettings other) {
+        this.iterations = other.iterations;
+        this.explorationConstant = other.explorationConstant;
+        this.explorationMin = other.explorationMin;
+        this.explorationHalfLife = other.explorationHalfLife;
+        this.rave = other.rave;
+        this.raveEquivalence = other.raveEquivalence;
+        this.progressiveWidening = other.progressiveWidening;
+        this.wideningFactor = other.wideningFactor;
+        this.wideningExponent = other.wideningExponent;
+        this.maxNodes = other.maxNodes;
+        this.batchSize = other.batchSize;
+        this.parallelPlayouts = other.parallelPlayouts;
+        this.ponderIterations = other.ponderIterations;
+        this.seed = other.seed;
+        this.tactics = other.tactics;
+        this.rolloutDepth = other.rolloutDepth;
+        this.evaluator = other.evaluator;
+        this.gameTime = other.gameTime;
+        this.timeManager = other.timeManager;
+        this.book = other.book;
+        this.sharedCache = other.sharedCache;
+    }
+
+    /**
+     * Parses comma separated key=value pairs, the keys being the property names of this class.
+     */
+    public static SearchSettings parse(String spec) {
+        SearchSettings settings = new SearchSettings();
+        if (spec == null || spec.isBlank()) return settings;
+        for (String pair : spec.split(",")) {
+            String[] kv = pair.split("=", 2);
+            if (kv.length != 2) throw new IllegalArgumentException("Expected key=value but was: " + pair);
+            String key = kv[0].trim();
+            String value = kv[1].trim();
+            switch (key) {
+                case "iterations":
+                    settings.setIterations(Integer.parseInt(value));
+                    break;
+                case "explorationConstant":
+                    settings.setExplorationConstant(Double.parseDouble(value));
+                    break;
+                case "explorationMin":
+                    settings.setExplorationMin(Double.parseDouble(value));
+                    break;
+                case "explorationHalfLife":
+                    settings.setExplorationHalfLife(Integer.parseInt(value));
+                    break;
+                case "rave":
+                    settings.setRave(Boolean.parseBoolean(value));
+                    break;
+                case "raveEquivalence":
+                    settings.setRaveEquivalence(Integer.parseInt(value));
+                    break;
+                case "progressiveWidening":
+                    settings.setProgressiveWidening(Boolean.parseBoolean(value));
+                    break;
+                case "wideningFactor":
+                    settings.setWideningFactor(Double.parseDouble(value));
+                    break;
+                case "wideningExponent":
+                    settings.setWideningExponent(Double.parseDouble(value));
+                    break;
+                case "maxNodes":
+                    settings.setMaxNodes(Integer.parseInt(value));
+                    break;
+                case "batchSize":
+                    settings.setBatchSize(Integer.parseInt(value));
+                    break;
+                case "parallelPlayouts":
+                    settings.setParallelPlayouts(Boolean.parseBoolean(value));
+                    break;
+                case "ponderIterations":
+                    settings.setPonderIterations(Integer.parseInt(value));
+                    break;
+                case "seed":
+                    settings.setSeed(Long.parseLong(value));
+                    break;
+                case "tactics":
+                    settings.setTactics(Boolean.parseBoolean(value));
+                    break;
+                case "rolloutDepth":
+                    settings.setRolloutDepth(Integer.parseInt(value));
+                    break;
+                case "evaluator":
+                    try (InputStream in = Files.newInputStream(Paths.get(value))) {
+                        settings.setEvaluator(PatternEvaluator.load(in));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Can't load the evaluation table " + value, e);
+                    }
+                    break;
+                case "gameTime":
+                    settings.setGameTime(Long.parseLong(value));
+                    break;
+                case "timeManager":
+                    settings.setTimeManager(timeManager(value));
+                    break;
+                case "sharedCache":
+                    settings.setSharedCache(Boolean.parseBoolean(value));
+                    break;
+                case "book":
+                    try {
+                        settings.setBook(TranspositionTable.load(Paths.get(value)));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Can't load the opening book " + value, e);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown search setting: " + key);
+            }
+        }
+        return settings;
+    }
+
+    //adaptive, fixed or the name of a class implementing TimeManager
+    private static TimeManager timeManager(String name) {
+        switch (name) {
+            case "adaptive":
+                return new AdaptiveTimeManager();
+            case "fixed":
+                return new FixedTimeManager();
+            default:
+                try {
+                    return (TimeManager) Class.forName(name).getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new IllegalArgumentException("Unknown time manager: " + name);
+                }
+        }
+    }
+
+    /* Hash of the settings that change what a search finds, so that the shared cache only hands a result to
+       searches that would look for it the same way. The budget, seed, pondering, clock, book and cache are left out
+     */
+    long fingerprint() {
+        long hash = 17;
+        hash = mix(hash, Double.doubleToLongBits(explorationConstant));
+        hash = mix(hash, Double.doubleToLongBits(explorationMin));
+        hash = mix(hash, explorationHalfLife);
+        hash = mix(hash, rave ? raveEquivalence : -1);
+        hash = mix(hash, progressiveWidening ? 1 : 0);
+        hash = mix(hash, Double.doubleToLongBits(wideningFactor));
+        hash = mix(hash, Double.doubleToLongBits(wideningExponent));
+        hash = mix(hash, maxNodes);
+        hash = mix(hash, batchSize);
+        hash = mix(hash, parallelPlayouts ? 1 : 0);
+        hash = mix(hash, tactics ? 1 : 0);
+        hash = mix(hash, rolloutDepth);
+        //The evaluator only scores cut short playouts
+        return mix(hash, rolloutDepth > 0 ? getEvaluator().hashCode() : 0);
+    }
+
+    private static long mix(long hash, long value) {
+        hash = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    //Exploration constant to use at a node that has been visited parentVisits times
+    public double explorationAt(int parentVisits) {
+        if (explorationHalfLife <= 0) return explorationConstant;
+        return explorationMin + (explorationConstant - explorationMin) * explorationHalfLife / (double) (explorationHalfLife + parentVisits);
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(int iterations) {
+        if (iterations < 1) throw new IllegalArgumentException("At least one iteration is required");
+        this.iterations = iterations;
+    }
+
+    public double getExplorationConstant() {
+        return explorationConstant;
+    }
+
+    public void setExplorationConstant(double explorationConstant) {
+        this.explorationConstant = explorationConstant;
+    }
+
+    public double getExplorationMin() {
+        return explorationMin;
+    }
+
+    public void setExplorationMin(double explorationMin) {
+        this.explorationMin = explorationMin;
+    }
+
+    public int getExplorationHalfLife() {
+        return explorationHalfLife;
+    }
+
+    public void setExplorationHalfLife(int explorationHalfLife) {
+        this.explorationHalfLife = explorationHalfLife;
+    }
+
+    public boolean isRave() {
+        return rave;
+    }
+
+    public void setRave(boolean rave) {
+        this.rave = rave;
+    }
+
+    public int getRaveEquivalence() {
+        return raveEquivalence;
+    }
+
+    public void setRaveEquivalence(int raveEquivalence) {
+        this.raveEquivalence = raveEquivalence;
+    }
+
+    public boolean isProgressiveWidening() {
+        return progressiveWidening;
+    }
+
+    public void setProgressiveWidening(boolean progressiveWidening) {
+        this.progressiveWidening = progressiveWidening;
+    }
+
+    public double getWideningFactor() {
+        return wideningFactor;
+    }
+
+    public void setWideningFactor(double wideningFactor) {
+        this.wideningFactor = wideningFactor;
+    }
+
+    public double getWideningExponent() {
+        return wideningExponent;
+    }
+
+    public void setWideningExponent(double wideningExponent) {
+        this.wideningExponent = wideningExponent;
+    }
+
+    public int getMaxNodes() {
+        return maxNodes;
+    }
+
+    public void setMaxNodes(int maxNodes) {
+        //Room for the root, its children and a few expansions
+        if (maxNodes != 0 && maxNodes < MIN_NODES) throw new IllegalArgumentException("maxNodes must be 0 or at least " + MIN_NODES);
+        this.maxNodes = maxNodes;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("The batch size must be at least 1");
+        this.batchSize = batchSize;
+    }
+
+    public boolean isParallelPlayouts() {
+        return parallelPlayouts;
+    }
+
+    public void setParallelPlayouts(boolean parallelPlayouts) {
+        this.parallelPlayouts = parallelPlayouts;
+    }
+
+    public int getPonderIterations() {
+        return ponderIterations;
+    }
+
+    public void setPonderIterations(int ponderIterations) {
+        if (ponderIterations < 0) throw new IllegalArgumentException("The ponder iterations can't be negative");
+        this.ponderIterations = ponderIterations;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    public boolean isTactics() {
+        return tactics;
+    }
+
+    public void setTactics(boolean tactics) {
+        this.tactics = tactics;
+    }
+
+    public int getRolloutDepth() {
+        return rolloutDepth;
+    }
+
+    public void setRolloutDepth(int rolloutDepth) {
+        this.rolloutDepth = rolloutDepth;
+    }
+
+    //The default table unless another one was set
+    public PatternEvaluator getEvaluator() {
+        return evaluator == null ? PatternEvaluator.getDefault() : evaluator;
+    }
+
+    public void setEvaluator(PatternEvaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    public long getGameTime() {
+        return gameTime;
+    }
+
+    public void setGameTime(long gameTime) {
+        if (gameTime < 0) throw new IllegalArgumentException("The game time can't be negative");
+        this.gameTime = gameTime;
+    }
+
+    //The adaptive time manager unless another one was set
+    public TimeManager getTimeManager() {
+        return timeManager == null ? DEFAULT_TIME_MANAGER : timeManager;
+    }
+
+    public void setTimeManager(TimeManager timeManager) {
+        this.timeManager = timeManager;
+    }
+
+    public TranspositionTable getBook() {
+        return book;
+    }
+
+    public void setBook(TranspositionTable book) {
+        this.book = book;
+    }
+
+    public boolean isSharedCache() {
+        return sharedCache;
+    }
+
+    public void setSharedCache(boolean sharedCache) {
+        this.sharedCache = sharedCache;
+    }
+
+    @Override
+    public String toString() {
+        return "iterations=" + iterations +
+                ",explorationConstant=" + explorationConstant +
+                ",explorationMin=" + explorationMin +
+                ",explorationHalfLife=" + explorationHalfLife +
+                ",rave=" + rave +
+                ",raveEquivalence=" + raveEquivalence +
+                ",progressiveWidening=" + progressiveWidening +
+                ",wideningFactor=" + wideningFactor +
+                ",wideningExponent=" + wideningExponent +
+                (maxNodes != 0 ? ",maxNodes=" + maxNodes : "") +
+                ",batchSize=" + batchSize +
+                ",parallelPlayouts=" + parallelPlayouts +
+                ",ponderIterations=" + ponderIterations +
+                (seed != null ? ",seed=" + seed : "") +
+                ",tactics=" + tactics +
+                ",rolloutDepth=" + rolloutDepth +
+                (evaluator != null ? ",evaluator=" + evaluator : "") +
+                (book != null ? ",book=" + book : "") +
+                (gameTime != 0 ? ",gameTime=" + gameTime + ",timeManager=" + getTimeManager() : "") +
+                (sharedCache ? ",sharedCache=true" : "");
+    }
+}
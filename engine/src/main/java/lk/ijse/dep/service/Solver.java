@@ -0,0 +1,194 @@
+package lk.ijse.dep.service;
+
+/**
+ * Exact solver: negamax with alpha-beta pruning and a transposition table over bitboards.
+ *
+ * It works on the bitboards of {@link Position}: each column takes 6 bits of a long, bit 0 being the
+ * bottom of column 0. Only horizontal and vertical lines count, like in {@link BoardImpl#findWinner()}.
+ *
+ * Scores are from the point of view of the piece to move: 0 for a draw, positive when it wins,
+ * the earlier the win the higher the score ({@code (31 - moves) / 2} where moves is the number of
+ * pieces on the board when the winning piece is played), negative when it loses.
+ * A Solver is not thread safe, use one per thread.
+ */
+public class Solver {
+
+    private static final int WIDTH = Board.NUM_OF_COLS;
+    private static final int HEIGHT = Board.NUM_OF_ROWS;
+    private static final int CELLS = WIDTH * HEIGHT;
+
+    //Below the lowest possible score, so stored upper bounds are always positive
+    private static final int MIN_SCORE = -(CELLS + 1) / 2 - 1;
+
+    //Center columns first, they take part in more lines
+    private static final int[] COLUMN_ORDER = {2, 3, 1, 4, 0, 5};
+
+    //Odd sized table, the key fits in 36 bits so its low 32 bits and the slot identify it
+    private final int[] keys;
+    private final byte[] values;
+
+    private long nodeCount;
+    private int lastScore;
+
+    public Solver() {
+        this(1048573);
+    }
+
+    /**
+     * @param tableSize number of transposition table entries (5 bytes each), odd and preferably a prime
+     */
+    public Solver(int tableSize) {
+        if (tableSize < (1 << (WIDTH * (HEIGHT + 1) - 32)) || tableSize % 2 == 0) {
+            throw new IllegalArgumentException("The table size must be odd and at least 16: " + tableSize);
+        }
+        keys = new int[tableSize];
+        values = new byte[tableSize];
+    }
+
+    /**
+     * @return the exact score of the board for the given piece to move
+     */
+    public int solve(Board board, Piece piece) {
+        return solve(board.getPosition(), piece);
+    }
+
+    public int solve(Position position, Piece piece) {
+        long mask = position.getMask();
+        return solve(position.getBits(piece), mask, Long.bitCount(mask));
+    }
+
+    /**
+     * Solves every legal move and returns the best one, its value is 1, 0.5 or 0 for a win, draw or loss.
+     * The exact score of the position is then given by {@link #getLastScore()}.
+     */
+    public SearchResult findBestMove(Board board, Piece piece) {
+        return findBestMove(board.getPosition(), piece);
+    }
+
+    public SearchResult findBestMove(Position position, Piece piece) {
+        long mask = position.getMask();
+        long current = position.getBits(piece);
+        int moves = Long.bitCount(mask);
+        int bestMove = -1;
+        int bestScore = Integer.MIN_VALUE;
+        for (int col : COLUMN_ORDER) {
+            if (!canPlay(mask, col)) continue;
+            int score;
+            if (isWinningMove(current, mask, col)) {
+                score = (CELLS + 1 - moves) / 2;
+            } else {
+                long nextMask = mask | (mask + bottomMask(col));
+                score = -solve(current ^ mask, nextMask, moves + 1);
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = col;
+            }
+        }
+        if (bestMove == -1) throw new IllegalArgumentException("There are no legal moves on this board");
+        lastScore = bestScore;
+        return new SearchResult(bestMove, bestScore > 0 ? 1 : bestScore == 0 ? 0.5 : 0, new int[WIDTH]);
+    }
+
+    //Exact score of the position given to the last findBestMove, the score of its best move
+    public int getLastScore() {
+        return lastScore;
+    }
+
+    //Number of positions explored since the solver was created
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    private int solve(long current, long mask, int moves) {
+        if (moves == CELLS) return 0;
+        for (int col = 0; col < WIDTH; col++) {
+            if (canPlay(mask, col) && isWinningMove(current, mask, col)) return (CELLS + 1 - moves) / 2;
+        }
+
+        //Null window searches narrowing down to the exact score
+        int min = -(CELLS - moves) / 2;
+        int max = (CELLS + 1 - moves) / 2;
+        while (min < max) {
+            int med = min + (max - min) / 2;
+            if (med <= 0 && min / 2 < med) med = min / 2;
+            else if (med >= 0 && max / 2 > med) med = max / 2;
+            int r = negamax(current, mask, moves, med, med + 1);
+            if (r <= med) max = r;
+            else min = r;
+        }
+        return min;
+    }
+
+    //Expects that the piece to move can't win immediately
+    private int negamax(long current, long mask, int moves, int alpha, int beta) {
+        nodeCount++;
+        if (moves == CELLS) return 0;
+
+        //We can't win with this move, so this is the best we can hope for
+        int max = (CELLS - 1 - moves) / 2;
+        int stored = get(current + mask);
+        if (stored != 0) max = stored + MIN_SCORE - 1;
+        if (beta > max) {
+            beta = max;
+            if (alpha >= beta) return beta;
+        }
+
+        long opponent = current ^ mask;
+        for (int col : COLUMN_ORDER) {
+            if (!canPlay(mask, col)) continue;
+            long nextMask = mask | (mask + bottomMask(col));
+            int score;
+            if (hasWinningMove(opponent, nextMask)) {
+                //The opponent wins right away after this move
+                score = -(CELLS + 1 - (moves + 1)) / 2;
+            } else {
+                score = -negamax(opponent, nextMask, moves + 1, -beta, -alpha);
+            }
+            if (score >= beta) return score;
+            if (score > alpha) alpha = score;
+        }
+
+        put(current + mask, alpha - MIN_SCORE + 1);
+        return alpha;
+    }
+
+    private static boolean hasWinningMove(long current, long mask) {
+        for (int col = 0; col < WIDTH; col++) {
+            if (canPlay(mask, col) && isWinningMove(current, mask, col)) return true;
+        }
+        return false;
+    }
+
+    private int get(long key) {
+        int slot = (int) (key % keys.length);
+        return keys[slot] == (int) key ? values[slot] : 0;
+    }
+
+    private void put(long key, int value) {
+        int slot = (int) (key % keys.length);
+        keys[slot] = (int) key;
+        values[slot] = (byte) value;
+    }
+
+    static boolean canPlay(long mask, int col) {
+        return (mask & topMask(col)) == 0;
+    }
+
+    static boolean isWinningMove(long current, long mask, int col) {
+        long pos = current | ((mask + bottomMask(col)) & columnMask(col));
+        return Position.hasFour(pos);
+    }
+
+    static long topMask(int col) {
+        return Position.bit(col, HEIGHT - 1);
+    }
+
+    static long bottomMask(int col) {
+        return Position.bit(col, 0);
+    }
+
+    static long columnMask(int col) {
+        return ((1L << HEIGHT) - 1) << (col * Position.COLUMN_BITS);
+    }
+}
@@ -0,0 +1,133 @@
+package lk.ijse.dep.service;
+
+import java.util.Locale;
+
+/**
+ * Decides how long the AiPlayer thinks about a move when it plays with a time budget for the whole
+ * game ({@link SearchSettings#setGameTime(long)}). Before the search it sets a target time for the move,
+ * then the search asks it every few playouts whether to go on, showing it how the visits of the root
+ * are spread. Every decision that ends or extends a search is logged by the AiPlayer at DEBUG level.
+ *
+ * Implementations must not keep state between calls, the same instance may serve several games at once.
+ */
+public interface TimeManager {
+
+    enum Decision {
+        //Keep searching
+        CONTINUE,
+        //Keep searching past the target
+        EXTEND,
+        //Stop: only one move is worth playing
+        FORCED,
+        //Stop: the best move is too far ahead to be caught
+        DOMINANT,
+        //Stop: the target time is reached
+        TARGET,
+        //Stop: the most the move may take is reached
+        LIMIT,
+        //Stop: the search has proven the result of the position
+        SOLVED;
+
+        public boolean stops() {
+            return this != CONTINUE && this != EXTEND;
+        }
+    }
+
+    //Time to aim for on the move, out of what is left of the game's budget
+    long target(Position position, long timeLeftNanos);
+
+    Decision check(Status status);
+
+    /**
+     * Where the search stands, updated by the search before every check.
+     */
+    final class Status {
+        private long elapsedNanos;
+        private long targetNanos;
+        private long timeLeftNanos;
+        private int moveCount;
+        private int candidates;
+        private int playouts;
+        private int bestVisits;
+        private int secondVisits;
+        private int bestChanges;
+        private long lastChangeNanos;
+
+        void update(long elapsedNanos, int playouts, int bestVisits, int secondVisits, boolean bestChanged) {
+            this.elapsedNanos = elapsedNanos;
+            this.playouts = playouts;
+            this.bestVisits = bestVisits;
+            this.secondVisits = secondVisits;
+            if (bestChanged) {
+                bestChanges++;
+                lastChangeNanos = elapsedNanos;
+            }
+        }
+
+        void start(Position position, int candidates, long targetNanos, long timeLeftNanos) {
+            this.moveCount = position.moveCount();
+            this.candidates = candidates;
+            this.targetNanos = targetNanos;
+            this.timeLeftNanos = timeLeftNanos;
+            elapsedNanos = 0;
+            playouts = 0;
+            bestVisits = 0;
+            secondVisits = 0;
+            bestChanges = 0;
+            lastChangeNanos = 0;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public long getTargetNanos() {
+            return targetNanos;
+        }
+
+        public long getTimeLeftNanos() {
+            return timeLeftNanos;
+        }
+
+        //Moves played before this one
+        public int getMoveCount() {
+            return moveCount;
+        }
+
+        //Moves the search considers at the root
+        public int getCandidates() {
+            return candidates;
+        }
+
+        //Playouts in the tree, those kept from pondering included
+        public int getPlayouts() {
+            return playouts;
+        }
+
+        //Visits of the most and the second most visited moves
+        public int getBestVisits() {
+            return bestVisits;
+        }
+
+        public int getSecondVisits() {
+            return secondVisits;
+        }
+
+        //How often the most visited move changed during this search, and when it last did
+        public int getBestChanges() {
+            return bestChanges;
+        }
+
+        public long getLastChangeNanos() {
+            return lastChangeNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "move %d, %d candidates, %.1f ms of %.1f ms target, %.0f ms left, %d playouts, best %d, second %d, %d changes",
+                    moveCount + 1, candidates, elapsedNanos / 1e6, targetNanos / 1e6, timeLeftNanos / 1e6,
+                    playouts, bestVisits, secondVisits, bestChanges);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package lk.ijse.dep.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Position keyed table of search results (visits, score and best move) kept off the Java heap, in direct
+ * or memory mapped ByteBuffers, so that a table of gigabytes costs the garbage collector nothing. Used as the
+ * opening book of the AiPlayer, see {@link SearchSettings#setBook(TranspositionTable)} and BookBuilder.
+ *
+ * The size is fixed when the table is created. Entries are 16 bytes, grouped by 4 in buckets of one cache line:
+ * a key hashes to a bucket and takes a free slot of it or replaces its least visited entry. Reads and writes take
+ * no lock. Each entry holds its data and the key xor the data, so an entry torn by two threads writing it at once
+ * no longer matches its key and reads as a miss, it is never returned mixed up.
+ *
+ * Keys are {@link Position#key()}. Saved tables start with the magic "C4TT", a version and the log2 of the bucket count,
+ * followed by the buckets; {@link #load(Path)} maps the file read only, so JVMs on one host share its pages.
+ */
+public class TranspositionTable {
+
+    private static final byte[] MAGIC = {'C', '4', 'T', 'T'};
+    private static final int VERSION = 1;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int BUCKET_BYTES = ENTRY_BYTES * BUCKET_ENTRIES;
+    //Padded to a bucket, so the buckets of a mapped file stay on cache lines
+    private static final int HEADER_BYTES = BUCKET_BYTES;
+    //A ByteBuffer holds at most 2 GB, larger tables are split in segments of 1 GB
+    private static final int SEGMENT_BITS = 24;
+
+    //Data layout: best move in bits 0-3, score in bits 4-32, visits in bits 33-61
+    private static final int COUNT_BITS = 29;
+    public static final int MAX_COUNT = (1 << COUNT_BITS) - 1;
+    public static final int NO_MOVE = 15;
+    //Returned by probe for a key that isn't in the table, no entry has this data
+    public static final long NOT_FOUND = -1;
+
+    private final ByteBuffer[] segments;
+    private final int bucketBits;
+    //File a loaded table is mapped from
+    private Path file;
+
+    /**
+     * Allocates an empty table of at most the given size, rounded down to a power of two of buckets.
+     */
+    public TranspositionTable(long megabytes) {
+        this(bucketBits(megabytes));
+    }
+
+    private TranspositionTable(int bucketBits) {
+        this(bucketBits, new ByteBuffer[segmentCount(bucketBits)]);
+        for (int i = 0; i < segments.length; i++) {
+            //Aligned so that a bucket is one cache line, then cut to size: the aligned slice may keep the spare bucket
+            ByteBuffer aligned = ByteBuffer.allocateDirect(segmentBytes(bucketBits) + BUCKET_BYTES).alignedSlice(BUCKET_BYTES);
+            aligned.limit(segmentBytes(bucketBits));
+            segments[i] = aligned.slice();
+        }
+    }
+
+    private TranspositionTable(int bucketBits, ByteBuffer[] segments) {
+        this.bucketBits = bucketBits;
+        this.segments = segments;
+    }
+
+    private static int bucketBits(long megabytes) {
+        if (megabytes < 1) throw new IllegalArgumentException("The table needs at least 1 MB: " + megabytes);
+        return 63 - Long.numberOfLeadingZeros(megabytes * 1024 * 1024 / BUCKET_BYTES);
+    }
+
+    private static int segmentCount(int bucketBits) {
+        return bucketBits <= SEGMENT_BITS ? 1 : 1 << (bucketBits - SEGMENT_BITS);
+    }
+
+    private static int segmentBytes(int bucketBits) {
+        return (1 << Math.min(bucketBits, SEGMENT_BITS)) * BUCKET_BYTES;
+    }
+
+    /**
+     * @return the data stored for the key, to read with {@link #visits(long)}, {@link #score(long)} and
+     * {@link #move(long)}, or {@link #NOT_FOUND}
+     */
+    public long probe(long key) {
+        long tag = key + 1;
+        long bucket = bucket(key);
+        ByteBuffer segment = segments[(int) (bucket >>> SEGMENT_BITS)];
+        int offset = offset(bucket);
+        for (int i = 0; i < BUCKET_ENTRIES; i++, offset += ENTRY_BYTES) {
+            long data = segment.getLong(offset + 8);
+            if ((segment.getLong(offset) ^ data) == tag) return data;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Stores the result of a position, in place of what was stored for it. Counts above {@link #MAX_COUNT}
+     * are scaled down together.
+     *
+     * @param move best move, or {@link #NO_MOVE}
+     */
+    public void store(long key, int visits, int score, int move) {
+        if (visits < 0 || score < 0 || score > visits) throw new IllegalArgumentException("Invalid counts: " + score + "/" + visits);
+        if (move < 0 || move > NO_MOVE) throw new IllegalArgumentException("Invalid move: " + move);
+        long tag = key + 1;
+        while (visits > MAX_COUNT) {
+            visits >>>= 1;
+            score >>>= 1;
+        }
+        long data = (long) visits << (COUNT_BITS + 4) | (long) score << 4 | move;
+
+        long bucket = bucket(key);
+        ByteBuffer segment = segments[(int) (bucket >>> SEGMENT_BITS)];
+        int first = offset(bucket);
+        //Same key first, then a free slot, otherwise the least visited entry makes room
+        int slot = -1;
+        int leastVisits = Integer.MAX_VALUE;
+        for (int i = 0, offset = first; i < BUCKET_ENTRIES; i++, offset += ENTRY_BYTES) {
+            long word = segment.getLong(offset);
+            long stored = segment.getLong(offset + 8);
+            if ((word ^ stored) == tag) {
+                slot = offset;
+                break;
+            }
+            int entryVisits = word == 0 && stored == 0 ? -1 : visits(stored);
+            if (entryVisits < leastVisits) {
+                leastVisits = entryVisits;
+                slot = offset;
+            }
+        }
+        segment.putLong(slot, tag ^ data);
+        segment.putLong(slot + 8, data);
+    }
+
+    public static int visits(long data) {
+        return (int) (data >>> (COUNT_BITS + 4)) & MAX_COUNT;
+    }
+
+    public static int score(long data) {
+        return (int) (data >>> 4) & MAX_COUNT;
+    }
+
+    public static int move(long data) {
+        return (int) data & 0xF;
+    }
+
+    //Number of entries the table can hold
+    public long getCapacity() {
+        return (1L << bucketBits) * BUCKET_ENTRIES;
+    }
+
+    //Number of entries in use, by scanning the whole table
+    public long count() {
+        long count = 0;
+        for (ByteBuffer segment : segments) {
+            for (int offset = 0; offset < segment.capacity(); offset += ENTRY_BYTES) {
+                if (segment.getLong(offset) != 0 || segment.getLong(offset + 8) != 0) count++;
+            }
+        }
+        return count;
+    }
+
+    public void save(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.put(MAGIC).putInt(VERSION).putInt(bucketBits).clear();
+            write(channel, header);
+            for (ByteBuffer segment : segments) {
+                write(channel, segment.duplicate().clear());
+            }
+        }
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    /**
+     * Maps a saved table read only, its pages are read from disk as they are probed. Storing into it fails.
+     */
+    public static TranspositionTable load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) ;
+            header.flip();
+            if (header.remaining() < HEADER_BYTES) throw new IOException("Not a transposition table file");
+            byte[] magic = new byte[MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) throw new IOException("Not a transposition table file");
+            int version = header.getInt();
+            if (version != VERSION) throw new IOException("Unsupported transposition table version " + version);
+            int bucketBits = header.getInt();
+            if (bucketBits < 0 || bucketBits > 40) throw new IOException("Invalid bucket count 2^" + bucketBits);
+            ByteBuffer[] segments = new ByteBuffer[segmentCount(bucketBits)];
+            long segmentBytes = segmentBytes(bucketBits);
+            if (channel.size() != HEADER_BYTES + segments.length * segmentBytes) {
+                throw new IOException("Truncated transposition table file");
+            }
+            for (int i = 0; i < segments.length; i++) {
+                //The mapping stays valid once the channel is closed
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + i * segmentBytes, segmentBytes);
+            }
+            TranspositionTable table = new TranspositionTable(bucketBits, segments);
+            table.file = file;
+            return table;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return file != null ? file.toString() : getCapacity() + " entries in memory";
+    }
+
+    //Fibonacci hashing, the top bits of the product pick the bucket
+    private long bucket(long key) {
+        return bucketBits == 0 ? 0 : (key * 0x9E3779B97F4A7C15L) >>> (64 - bucketBits);
+    }
+
+    private static int offset(long bucket) {
+        return (int) (bucket & ((1 << SEGMENT_BITS) - 1)) * BUCKET_BYTES;
+    }
+}
@@ -0,0 +1,101 @@
+package lk.ijse.dep.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primes the JIT before the first real AI move by running short searches on synthetic positions
+ * in a background daemon thread.
+ *
+ * The same set of positions is searched in rounds. Once two consecutive rounds take about the same
+ * time, the search code has been compiled by C2 and the warm-up reports steady state and stops.
+ */
+public class Warmup {
+
+    private static final System.Logger LOGGER = System.getLogger(Warmup.class.getName());
+
+    private static final int POSITIONS = 8;
+    private static final int ITERATIONS = 500;
+    private static final int MAX_ROUNDS = 40;
+    private static final int MIN_ROUNDS = 5;
+    //Relative change between two rounds below which the round time is considered stable
+    private static final double TOLERANCE = 0.05;
+
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile boolean stopped;
+    private volatile boolean steady;
+    private Thread thread;
+
+    public synchronized void start() {
+        if (thread != null) return;
+        thread = new Thread(this::run, "ai-warmup");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    //Stops the warm-up early, e.g. when the AI has to play for real
+    public void stop() {
+        stopped = true;
+    }
+
+    public boolean isSteady() {
+        return steady;
+    }
+
+    //Waits until the warm-up has finished, whether steady state was reached or not
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return done.await(timeout, unit);
+    }
+
+    private void run() {
+        try {
+            List<Board> boards = syntheticPositions();
+            long start = System.nanoTime();
+            long previous = -1;
+            for (int round = 1; round <= MAX_ROUNDS && !stopped; round++) {
+                long roundStart = System.nanoTime();
+                for (int i = 0; i < boards.size() && !stopped; i++) {
+                    AiPlayer.search(boards.get(i), Piece.BLUE, ITERATIONS);
+                }
+                if (stopped) break;
+                long roundTime = System.nanoTime() - roundStart;
+                if (round >= MIN_ROUNDS && previous > 0 && Math.abs(roundTime - previous) <= previous * TOLERANCE) {
+                    steady = true;
+                    LOGGER.log(System.Logger.Level.INFO, "AI warm-up reached steady state after {0} rounds in {1} ms, a round now takes {2} ms",
+                            round, (System.nanoTime() - start) / 1_000_000, roundTime / 1_000_000);
+                    return;
+                }
+                previous = roundTime;
+            }
+            LOGGER.log(System.Logger.Level.INFO, "AI warm-up {0} before reaching steady state after {1} ms",
+                    stopped ? "was stopped" : "gave up", (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            done.countDown();
+        }
+    }
+
+    //Boards a few random moves into a game, fixed so that every round searches the same positions
+    private static List<Board> syntheticPositions() {
+        Random random = new Random(42);
+        List<Board> boards = new ArrayList<>();
+        while (boards.size() < POSITIONS) {
+            Board board = new BoardImpl(null);
+            //An even number of moves, so BLUE is always the one to move
+            int moves = boards.size() * 2;
+            Piece piece = Piece.BLUE;
+            while (moves > 0) {
+                int col = random.nextInt(Board.NUM_OF_COLS);
+                if (!board.isLegalMove(col)) continue;
+                board.updateMove(col, piece);
+                piece = (piece == Piece.BLUE) ? Piece.GREEN : Piece.BLUE;
+                moves--;
+            }
+            if (board.getPosition().winner() == Piece.EMPTY) boards.add(board);
+        }
+        return boards;
+    }
+}
@@ -0,0 +1,84 @@
+package lk.ijse.dep.service;
+
+/**
+ * Immutable, so the shared NO_WINNER and the winners built from packed values can be handed to anyone.
+ */
+public final class Winner {
+
+    //Shared result for positions nobody has won
+    public static final Winner NO_WINNER = new Winner(Piece.EMPTY);
+
+    /* Packed form of a winner in an int, so finding one allocates nothing: the piece code in bits 0-1,
+       then col1, row1, col2 and row2 in 3 bits each. 0 is no winner
+     */
+    private static final int PIECE_BITS = 2;
+    private static final int COORDINATE_BITS = 3;
+    private static final int COORDINATE_MASK = (1 << COORDINATE_BITS) - 1;
+
+    private final Piece winningPiece;
+    private final int col1;
+    private final int row1;
+    private final int col2;
+    private final int row2;
+
+    public Winner(Piece winningPiece) {
+        this.winningPiece = winningPiece;
+        this.col1 = -1;
+        this.row1 = -1;
+        this.col2 = -1;
+        this.row2 = -1;
+    }
+
+    public Winner(Piece winningPiece, int col1, int row1, int col2, int row2) {
+        this.winningPiece = winningPiece;
+        this.col1 = col1;
+        this.row1 = row1;
+        this.col2 = col2;
+        this.row2 = row2;
+    }
+
+    public static int pack(Piece winningPiece, int col1, int row1, int col2, int row2) {
+        int code = winningPiece.code();
+        if (code == Piece.EMPTY_CODE) return 0;
+        int shift = PIECE_BITS;
+        code |= col1 << shift;
+        code |= row1 << (shift += COORDINATE_BITS);
+        code |= col2 << (shift += COORDINATE_BITS);
+        code |= row2 << (shift + COORDINATE_BITS);
+        return code;
+    }
+
+    public static Piece pieceOf(int packed) {
+        return Piece.fromCode(packed & ((1 << PIECE_BITS) - 1));
+    }
+
+    //Builds the Winner of a packed value, e.g. to hand it to the UI
+    public static Winner of(int packed) {
+        if (packed == 0) return NO_WINNER;
+        return new Winner(pieceOf(packed), coordinate(packed, 0), coordinate(packed, 1), coordinate(packed, 2), coordinate(packed, 3));
+    }
+
+    private static int coordinate(int packed, int index) {
+        return (packed >>> (PIECE_BITS + index * COORDINATE_BITS)) & COORDINATE_MASK;
+    }
+
+    public Piece getWinningPiece() {
+        return winningPiece;
+    }
+
+    public int getCol1() {
+        return col1;
+    }
+
+    public int getRow1() {
+        return row1;
+    }
+
+    public int getCol2() {
+        return col2;
+    }
+
+    public int getRow2() {
+        return row2;
+    }
+}
@@ -0,0 +1,239 @@
+package lk.ijse.dep.tool;
+
+import lk.ijse.dep.service.AiPlayer;
+import lk.ijse.dep.service.BatchScanner;
+import lk.ijse.dep.service.Board;
+import lk.ijse.dep.service.BoardImpl;
+import lk.ijse.dep.service.Piece;
+import lk.ijse.dep.service.Position;
+import lk.ijse.dep.service.SearchResult;
+import lk.ijse.dep.service.SearchSettings;
+import lk.ijse.dep.service.Solver;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Scores a file of positions without the UI.
+ *
+ * Each input line is a position given as the sequence of columns played from the empty board
+ * (BLUE plays first), e.g. {@code 2233}. Each output line repeats the position followed by the best
+ * column and its value for the piece to move, and either the visits per column (mcts) or the exact
+ * score (solver). Positions are read and written in chunks so memory stays bounded whatever the file size.
+ * The {@link BatchScanner} finds the finished games of each chunk, which are reported without a search.
+ *
+ * Usage: BatchAnalyzer &lt;positions&gt; [--engine mcts|solver] [--iterations n] [--seed n] [--threads n] [--chunk n] [--out file]
+ * With --seed every mcts search is seeded the same way, so the output doesn't depend on the thread count.
+ */
+public class BatchAnalyzer {
+
+    private static final long PROGRESS_INTERVAL_NANOS = 5_000_000_000L;
+
+    private String engine = "mcts";
+    private int iterations = 4000;
+    private Long seed;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int chunkSize = 256;
+    private String input;
+    private String output;
+
+    //One solver per worker thread, its transposition table is reused between positions
+    private final ThreadLocal<Solver> solvers = ThreadLocal.withInitial(Solver::new);
+
+    public static void main(String[] args) throws Exception {
+        BatchAnalyzer analyzer = new BatchAnalyzer();
+        try {
+            analyzer.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: BatchAnalyzer <positions> [--engine mcts|solver] [--iterations n] [--seed n] [--threads n] [--chunk n] [--out file]");
+            System.exit(2);
+        }
+        analyzer.run();
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                input = arg;
+                continue;
+            }
+            if (i + 1 == args.length) throw new IllegalArgumentException("Missing value for " + arg);
+            String value = args[++i];
+            switch (arg) {
+                case "--engine":
+                    if (!value.equals("mcts") && !value.equals("solver"))
+                        throw new IllegalArgumentException("Unknown engine: " + value);
+                    engine = value;
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--chunk":
+                    chunkSize = Integer.parseInt(value);
+                    break;
+                case "--out":
+                    output = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (input == null) throw new IllegalArgumentException("No positions file given");
+        if (threads < 1 || chunkSize < 1 || iterations < 1)
+            throw new IllegalArgumentException("--threads, --chunk and --iterations must be positive");
+    }
+
+    private void run() throws IOException, InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        //At most this many chunks are read ahead of the writer
+        int maxPending = threads * 2;
+        ArrayDeque<Future<List<String>>> pending = new ArrayDeque<>();
+
+        long start = System.nanoTime();
+        long lastReport = start;
+        long done = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(input), StandardCharsets.UTF_8);
+             Writer writer = output == null
+                     ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                     : Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+
+            boolean eof = false;
+            while (!eof || !pending.isEmpty()) {
+                if (!eof && pending.size() < maxPending) {
+                    List<String> chunk = readChunk(reader);
+                    if (chunk.isEmpty()) {
+                        eof = true;
+                    } else {
+                        pending.add(pool.submit(() -> analyzeChunk(chunk)));
+                    }
+                    continue;
+                }
+
+                //Results are written in input order, as soon as the oldest chunk is done
+                List<String> results = await(pending.poll());
+                for (String result : results) {
+                    writer.write(result);
+                    writer.write(System.lineSeparator());
+                }
+                writer.flush();
+                done += results.size();
+
+                long now = System.nanoTime();
+                if (now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                    lastReport = now;
+                    report(done, now - start);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        report(done, System.nanoTime() - start);
+    }
+
+    private List<String> readChunk(BufferedReader reader) throws IOException {
+        List<String> chunk = new ArrayList<>(chunkSize);
+        String line;
+        while (chunk.size() < chunkSize && (line = reader.readLine()) != null) {
+            chunk.add(line.trim());
+        }
+        return chunk;
+    }
+
+    private List<String> await(Future<List<String>> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Analysis failed", e.getCause());
+        }
+    }
+
+    private List<String> analyzeChunk(List<String> lines) {
+        int count = lines.size();
+        String[] results = new String[count];
+        Position[] positions = new Position[count];
+        long[] blue = new long[count];
+        long[] green = new long[count];
+        for (int i = 0; i < count; i++) {
+            String line = lines.get(i);
+            Position position = Position.EMPTY;
+            for (int j = 0; j < line.length() && results[i] == null; j++) {
+                int col = line.charAt(j) - '0';
+                if (col < 0 || col >= Board.NUM_OF_COLS) results[i] = "error\tinvalid column at " + j;
+                else if (!position.isLegalMove(col)) results[i] = "error\tcolumn " + col + " is full at " + j;
+                else if (position.winner() != Piece.EMPTY) results[i] = "error\tgame already over at " + j;
+                else position = position.withMove(col);
+            }
+            if (results[i] != null) continue;
+            positions[i] = position;
+            blue[i] = position.getBits(Piece.BLUE);
+            green[i] = position.getBits(Piece.GREEN);
+        }
+
+        //Finished games are sorted out for the whole chunk at once, only the others are searched
+        byte[] status = new byte[count];
+        BatchScanner.getInstance().status(blue, green, count, status);
+        List<String> analyzed = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (results[i] == null) {
+                if (status[i] == BatchScanner.DRAW) results[i] = "over\tdraw";
+                else if (status[i] != BatchScanner.ONGOING) results[i] = "over\t" + Piece.fromCode(status[i]);
+                else results[i] = analyze(positions[i]);
+            }
+            analyzed.add(lines.get(i) + '\t' + results[i]);
+        }
+        return analyzed;
+    }
+
+    private String analyze(Position position) {
+        Piece piece = position.sideToMove();
+        if (engine.equals("solver")) {
+            Solver solver = solvers.get();
+            SearchResult result = solver.findBestMove(position, piece);
+            return result.getMove() + "\t" + format(result.getValue()) + "\t" + solver.getLastScore();
+        }
+        SearchSettings settings = new SearchSettings();
+        settings.setIterations(iterations);
+        settings.setSeed(seed);
+        SearchResult result = AiPlayer.search(new BoardImpl(null, position), piece, settings);
+        StringBuilder sb = new StringBuilder();
+        sb.append(result.getMove()).append('\t').append(format(result.getValue())).append('\t');
+        int[] visits = result.getVisits();
+        for (int col = 0; col < visits.length; col++) {
+            if (col > 0) sb.append(',');
+            sb.append(visits[col]);
+        }
+        return sb.toString();
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static void report(long done, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.err.printf(Locale.ROOT, "%d positions in %.1f s (%.1f positions/s)%n",
+                done, seconds, seconds == 0 ? 0 : done / seconds);
+    }
+}
@@ -0,0 +1,154 @@
+package lk.ijse.dep.tool;
+
+import lk.ijse.dep.service.AiPlayer;
+import lk.ijse.dep.service.Board;
+import lk.ijse.dep.service.BoardImpl;
+import lk.ijse.dep.service.Position;
+import lk.ijse.dep.service.SearchResult;
+import lk.ijse.dep.service.SearchSettings;
+import lk.ijse.dep.service.TranspositionTable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds an opening book for the AiPlayer: every position reachable in at most --depth moves is searched with
+ * long searches and its best move, with the visits and wins behind it, is stored in an off-heap
+ * {@link TranspositionTable} saved to --out. The threads store their results straight into the shared table.
+ * Play from the book with the search setting {@code book=<file>}.
+ *
+ * Positions where a move is forced by tactics are left out, the AiPlayer plays them without a search anyway.
+ *
+ * Usage: BookBuilder --out &lt;file&gt; [--depth n] [--size megabytes] [--settings &lt;settings&gt;] [--threads n] [--seed n]
+ */
+public class BookBuilder {
+
+    private Path out;
+    private int depth = 4;
+    private long size = 16;
+    private SearchSettings settings = SearchSettings.parse("iterations=50000");
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private Long seed;
+
+    public static void main(String[] args) throws Exception {
+        BookBuilder builder = new BookBuilder();
+        try {
+            builder.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: BookBuilder --out <file> [--depth n] [--size megabytes] [--settings <settings>] [--threads n] [--seed n]");
+            System.exit(2);
+        }
+        builder.run();
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) throw new IllegalArgumentException("Missing value for " + args[i]);
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--out":
+                    out = Paths.get(value);
+                    break;
+                case "--depth":
+                    depth = Integer.parseInt(value);
+                    break;
+                case "--size":
+                    size = Long.parseLong(value);
+                    break;
+                case "--settings":
+                    settings = SearchSettings.parse(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (out == null) throw new IllegalArgumentException("Missing --out");
+        if (depth < 0) throw new IllegalArgumentException("The depth can't be negative");
+        if (threads < 1) throw new IllegalArgumentException("At least one thread is required");
+    }
+
+    private void run() throws IOException, InterruptedException, ExecutionException {
+        System.out.println("Settings: " + settings);
+        List<Position> positions = positions();
+        TranspositionTable book = new TranspositionTable(size);
+        if (positions.size() > book.getCapacity()) {
+            throw new IllegalArgumentException(positions.size() + " positions don't fit in a table of " + size + " MB");
+        }
+
+        long start = System.nanoTime();
+        AtomicInteger stored = new AtomicInteger();
+        SplittableRandom seeds = seed != null ? new SplittableRandom(seed) : null;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> searches = new ArrayList<>();
+            for (Position position : positions) {
+                SearchSettings positionSettings = settings;
+                if (seeds != null) {
+                    positionSettings = new SearchSettings(settings);
+                    positionSettings.setSeed(seeds.nextLong());
+                }
+                SearchSettings searchSettings = positionSettings;
+                searches.add(pool.submit(() -> {
+                    Board board = new BoardImpl(null, position);
+                    SearchResult result = AiPlayer.search(board, position.sideToMove(), searchSettings);
+                    int visits = result.getVisits()[result.getMove()];
+                    if (visits > 0) {
+                        int score = (int) Math.round(result.getValue() * visits);
+                        book.store(position.key(), visits, score, result.getMove());
+                        stored.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> search : searches) search.get();
+        } finally {
+            pool.shutdownNow();
+        }
+        book.save(out);
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "%d positions up to %d moves, %d stored (%d entries in the table) in %.1f s, %s is %d MB%n",
+                positions.size(), depth, stored.get(), book.count(), seconds, out, Files.size(out) / (1024 * 1024));
+    }
+
+    //The ongoing positions reachable in at most depth moves from the empty board, transpositions once
+    private List<Position> positions() {
+        List<Position> positions = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        List<Position> level = new ArrayList<>();
+        level.add(new BoardImpl(null).getPosition());
+        for (int moves = 0; moves <= depth && !level.isEmpty(); moves++) {
+            positions.addAll(level);
+            List<Position> next = new ArrayList<>();
+            for (Position position : level) {
+                for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+                    if (!position.isLegalMove(col)) continue;
+                    Position child = position.withMove(col);
+                    if (!child.isTerminal() && seen.add(child.key())) next.add(child);
+                }
+            }
+            level = next;
+        }
+        return positions;
+    }
+}
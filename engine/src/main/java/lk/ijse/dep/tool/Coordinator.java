@@ -0,0 +1,273 @@
+package lk.ijse.dep.tool;
+
+import lk.ijse.dep.record.GameRecordWriter;
+import lk.ijse.dep.service.SearchSettings;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a {@link Tournament} on {@link Worker} JVMs, on this host or others. The coordinator draws the seed
+ * of every game exactly like Tournament --seed does, splits the games into batches and hands the batches
+ * with the two engine settings to the workers that connect over TCP. Workers stream each game back as
+ * soon as it is over. When a worker disconnects or stays silent longer than --timeout, or a game of its batch
+ * fails, the batch goes back to the queue for another worker, games it already reported are kept. A batch
+ * that went back more than --retries times stops the run with an error, as a game that fails on every worker
+ * would otherwise be handed out forever.
+ *
+ * The results are summed in game order once every game is in, so the scores, moves and game records are
+ * the same as those of Tournament with the same seed on a single host. Only the timings differ. That doesn't hold
+ * for engines with a gameTime or the sharedCache: their searches depend on the clock and on the other games
+ * of the JVM, so no two runs play the same games.
+ *
+ * Usage: Coordinator --a &lt;settings&gt; --b &lt;settings&gt; [--games n] [--seed n] [--batch n] [--port n]
+ * [--timeout seconds] [--retries n] [--record file]
+ *
+ * Protocol, one tab separated line per message: the worker sends HELLO and its thread count, the coordinator
+ * answers BATCH id, settings A, settings B and the game count, followed by one line per game (index, seed),
+ * the worker sends RESULT and a game per game, or FAILED, the game index and the error for a game that threw,
+ * then DONE id, and the coordinator sends BYE once all games are in.
+ */
+public class Coordinator {
+
+    public static final int DEFAULT_PORT = 7464;
+
+    private String specA = "";
+    private String specB = "";
+    private int games = 100;
+    private Long seed;
+    private int batchSize = 10;
+    private int port = DEFAULT_PORT;
+    private int timeout = 600;
+    private int retries = 3;
+    private String recordFile;
+
+    private final BlockingDeque<Batch> batches = new LinkedBlockingDeque<>();
+    //Only touched by the accepting thread until it has stopped
+    private final List<Thread> handlers = new ArrayList<>();
+    private TournamentGame[] results;
+    private CountDownLatch remaining;
+    private volatile boolean finished;
+    private volatile String failure;
+
+    public static void main(String[] args) throws Exception {
+        Coordinator coordinator = new Coordinator();
+        try {
+            coordinator.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: Coordinator --a <settings> --b <settings> [--games n] [--seed n] [--batch n] [--port n] [--timeout seconds] [--retries n] [--record file]");
+            System.exit(2);
+        }
+        coordinator.run();
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) throw new IllegalArgumentException("Missing value for " + args[i]);
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--a":
+                    specA = value;
+                    break;
+                case "--b":
+                    specB = value;
+                    break;
+                case "--games":
+                    games = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--batch":
+                    batchSize = Integer.parseInt(value);
+                    break;
+                case "--port":
+                    port = Integer.parseInt(value);
+                    break;
+                case "--timeout":
+                    timeout = Integer.parseInt(value);
+                    break;
+                case "--retries":
+                    retries = Integer.parseInt(value);
+                    break;
+                case "--record":
+                    recordFile = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        //Fails here rather than on every worker
+        SearchSettings.parse(specA);
+        SearchSettings.parse(specB);
+        if (batchSize < 1) throw new IllegalArgumentException("The batch size must be at least 1");
+        if (retries < 0) throw new IllegalArgumentException("The retries can't be negative");
+    }
+
+    private void run() throws IOException, InterruptedException {
+        SearchSettings engineA = SearchSettings.parse(specA);
+        SearchSettings engineB = SearchSettings.parse(specB);
+        System.out.println("A: " + engineA);
+        System.out.println("B: " + engineB);
+        //Without a seed the workers couldn't agree on the games, so one is picked and shown to replay the run
+        if (seed == null) seed = new SplittableRandom().nextLong();
+        System.out.println("Seed: " + seed);
+        TournamentGame.checkReproducible(seed, engineA, engineB);
+
+        SplittableRandom seeds = new SplittableRandom(seed);
+        long[] gameSeeds = new long[games];
+        for (int game = 0; game < games; game++) gameSeeds[game] = seeds.nextLong();
+        for (int first = 0, id = 0; first < games; first += batchSize, id++) {
+            batches.add(new Batch(id, first, Math.min(games, first + batchSize), gameSeeds));
+        }
+        results = new TournamentGame[games];
+        remaining = new CountDownLatch(games);
+
+        ServerSocket server = new ServerSocket(port);
+        Thread acceptor = new Thread(() -> accept(server), "coordinator-accept");
+        try {
+            System.err.println("Waiting for workers on port " + server.getLocalPort());
+            acceptor.setDaemon(true);
+            acceptor.start();
+            remaining.await();
+        } finally {
+            finished = true;
+            server.close();
+        }
+        acceptor.join();
+        //Every worker is told BYE before the JVM exits, one still playing a batch played twice finishes it first
+        for (Thread handler : handlers) handler.join();
+        if (failure != null) throw new IllegalStateException(failure);
+
+        List<TournamentGame> ordered = Arrays.asList(results);
+        if (recordFile != null) {
+            try (GameRecordWriter recorder = new GameRecordWriter(Paths.get(recordFile))) {
+                for (TournamentGame game : ordered) game.record(recorder);
+            }
+        }
+        TournamentGame.report(ordered);
+    }
+
+    private void accept(ServerSocket server) {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread handler = new Thread(() -> serve(socket), "coordinator-" + socket.getRemoteSocketAddress());
+                handler.setDaemon(true);
+                handlers.add(handler);
+                handler.start();
+            } catch (IOException e) {
+                if (!server.isClosed()) System.err.println("Accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        String worker = socket.getRemoteSocketAddress().toString();
+        Batch batch = null;
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(timeout));
+            String[] hello = read(in);
+            if (!hello[0].equals("HELLO") || hello.length != 2) throw new IOException("Expected HELLO but got " + hello[0]);
+            System.err.println("Worker " + worker + " joined with " + hello[1] + " threads");
+            while (!finished) {
+                batch = batches.poll(1, TimeUnit.SECONDS);
+                if (batch == null || finished) continue;
+                send(out, batch);
+                String failed = null;
+                String[] message;
+                while (!(message = read(in))[0].equals("DONE")) {
+                    if (message[0].equals("RESULT")) collect(TournamentGame.decode(message[1]));
+                    else if (message[0].equals("FAILED")) failed = message[1];
+                    else throw new IOException("Unexpected message " + message[0]);
+                }
+                Batch played = batch;
+                batch = null;
+                if (failed != null) {
+                    String[] game = failed.split("\t", 2);
+                    requeue(played, worker, "game " + game[0] + " failed: " + (game.length > 1 ? game[1] : "no reason given"));
+                }
+            }
+            out.write("BYE\n");
+            out.flush();
+        } catch (IOException | RuntimeException e) {
+            //A lost connection or a message that can't be decoded: the worker is dropped, its batch isn't
+            if (batch != null) requeue(batch, worker, "lost the worker, " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //Counts every time a batch goes back, so a game that fails on every worker ends the run instead of looping
+    private void requeue(Batch batch, String worker, String reason) {
+        if (++batch.requeues > retries) {
+            abort("Batch " + batch.id + " failed " + batch.requeues + " times, last on worker " + worker + ": " + reason);
+            return;
+        }
+        batches.addFirst(batch);
+        System.err.println("Batch " + batch.id + " failed on worker " + worker + " (" + reason + "), it goes back to the queue");
+    }
+
+    //Stops handing out batches and wakes up run(), which reports the failure
+    private void abort(String reason) {
+        failure = reason;
+        finished = true;
+        while (remaining.getCount() > 0) remaining.countDown();
+    }
+
+    //A game played again after its worker got lost is the same game, only the first copy counts
+    private synchronized void collect(TournamentGame game) {
+        if (game.index < 0 || game.index >= results.length) throw new IllegalArgumentException("No game " + game.index);
+        if (results[game.index] != null) return;
+        results[game.index] = game;
+        remaining.countDown();
+    }
+
+    private void send(Writer out, Batch batch) throws IOException {
+        out.write(String.join("\t", "BATCH", String.valueOf(batch.id), specA, specB, String.valueOf(batch.seeds.size())) + "\n");
+        for (int i = 0; i < batch.seeds.size(); i++) {
+            out.write((batch.first + i) + "\t" + batch.seeds.get(i) + "\n");
+        }
+        out.flush();
+    }
+
+    private static String[] read(BufferedReader in) throws IOException {
+        String line = in.readLine();
+        if (line == null) throw new SocketException("Connection closed");
+        return line.split("\t", 2);
+    }
+
+    private static class Batch {
+        private final int id;
+        private final int first;
+        private final List<Long> seeds = new ArrayList<>();
+        //Only touched by the handler holding the batch
+        private int requeues;
+
+        private Batch(int id, int first, int end, long[] gameSeeds) {
+            this.id = id;
+            this.first = first;
+            for (int game = first; game < end; game++) seeds.add(gameSeeds[game]);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package lk.ijse.dep.tool;
+
+import lk.ijse.dep.record.GameRecord;
+import lk.ijse.dep.record.GameRecordReader;
+import lk.ijse.dep.service.BatchScanner;
+import lk.ijse.dep.service.PatternEvaluator;
+import lk.ijse.dep.service.Piece;
+import lk.ijse.dep.service.Position;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Fits a {@link PatternEvaluator} table to the positions of recorded games, e.g. self-play games
+ * written by {@code Tournament --record}. Every position of a finished game is labelled with the
+ * final result from the point of view of the side to move (1 win, 0.5 draw, 0 loss) and the
+ * weights are fitted by stochastic gradient descent on the log loss. Finished games whose last position
+ * doesn't show the recorded result, e.g. edited or mixed up records, are skipped rather than mislabelled.
+ *
+ * Usage: EvalTrainer --out &lt;table&gt; [--epochs n] [--rate r] &lt;records&gt;...
+ */
+public class EvalTrainer {
+
+    //Games checked by the BatchScanner at a time
+    private static final int CHUNK_SIZE = 4096;
+
+    private final List<double[]> features = new ArrayList<>();
+    private final List<Double> labels = new ArrayList<>();
+    private final List<Path> inputs = new ArrayList<>();
+    private Path out;
+    private int epochs = 30;
+    private double rate = 0.01;
+    private int inconsistent;
+
+    public static void main(String[] args) throws IOException {
+        EvalTrainer trainer = new EvalTrainer();
+        try {
+            trainer.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: EvalTrainer --out <table> [--epochs n] [--rate r] <records>...");
+            System.exit(2);
+        }
+        trainer.run();
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--out":
+                    out = Paths.get(value(args, ++i));
+                    break;
+                case "--epochs":
+                    epochs = Integer.parseInt(value(args, ++i));
+                    break;
+                case "--rate":
+                    rate = Double.parseDouble(value(args, ++i));
+                    break;
+                default:
+                    if (args[i].startsWith("--")) throw new IllegalArgumentException("Unknown option: " + args[i]);
+                    inputs.add(Paths.get(args[i]));
+            }
+        }
+        if (out == null) throw new IllegalArgumentException("Missing --out");
+        if (inputs.isEmpty()) throw new IllegalArgumentException("No game records given");
+    }
+
+    private static String value(String[] args, int i) {
+        if (i == args.length) throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        return args[i];
+    }
+
+    private void run() throws IOException {
+        int games = 0;
+        List<GameRecord> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (Path input : inputs) {
+            try (GameRecordReader reader = new GameRecordReader(input)) {
+                GameRecord game;
+                while ((game = reader.read()) != null) {
+                    if (!game.isFinished()) continue;
+                    chunk.add(game);
+                    if (chunk.size() == CHUNK_SIZE) games += addGames(chunk);
+                }
+            }
+        }
+        games += addGames(chunk);
+        System.err.printf(Locale.ROOT, "%d games, %d positions", games, features.size());
+        System.err.println(inconsistent > 0 ? ", " + inconsistent + " games skipped, their last position doesn't show their result" : "");
+        if (features.isEmpty()) throw new IllegalArgumentException("No finished games in the records");
+
+        double[] weights = new double[PatternEvaluator.FEATURE_COUNT];
+        int[] order = new int[features.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        //Fixed seed so the same records always give the same table
+        Random random = new Random(1);
+        for (int epoch = 1; epoch <= epochs; epoch++) {
+            shuffle(order, random);
+            double loss = 0;
+            for (int index : order) {
+                double[] x = features.get(index);
+                double y = labels.get(index);
+                double p = predict(weights, x);
+                loss -= y * Math.log(Math.max(p, 1e-12)) + (1 - y) * Math.log(Math.max(1 - p, 1e-12));
+                double gradient = p - y;
+                for (int i = 0; i < weights.length; i++) {
+                    weights[i] -= rate * gradient * x[i];
+                }
+            }
+            System.err.printf(Locale.ROOT, "epoch %d: log loss %.4f%n", epoch, loss / order.length);
+        }
+
+        float[] table = new float[weights.length];
+        for (int i = 0; i < weights.length; i++) table[i] = (float) weights[i];
+        try (OutputStream stream = Files.newOutputStream(out)) {
+            new PatternEvaluator(table).save(stream);
+        }
+        System.err.println("Wrote " + out);
+    }
+
+    /* Adds the positions of the games whose final position shows the recorded result, checked for the whole
+       chunk at once by the BatchScanner, then empties the chunk. Returns the number of games added
+     */
+    private int addGames(List<GameRecord> chunk) {
+        int count = chunk.size();
+        long[] blue = new long[count];
+        long[] green = new long[count];
+        for (int i = 0; i < count; i++) {
+            GameRecord game = chunk.get(i);
+            Position position = Position.EMPTY;
+            for (int ply = 0; ply < game.getMoveCount(); ply++) position = position.withMove(game.getMove(ply), game.getPiece(ply));
+            blue[i] = position.getBits(Piece.BLUE);
+            green[i] = position.getBits(Piece.GREEN);
+        }
+        byte[] status = new byte[count];
+        BatchScanner.getInstance().status(blue, green, count, status);
+        int added = 0;
+        for (int i = 0; i < count; i++) {
+            GameRecord game = chunk.get(i);
+            byte expected = game.getWinner() == Piece.EMPTY ? BatchScanner.DRAW : game.getWinner().code();
+            if (status[i] != expected) {
+                inconsistent++;
+                continue;
+            }
+            addPositions(game);
+            added++;
+        }
+        chunk.clear();
+        return added;
+    }
+
+    private void addPositions(GameRecord game) {
+        Piece winner = game.getWinner();
+        Position position = Position.EMPTY;
+        for (int ply = 0; ply < game.getMoveCount(); ply++) {
+            Piece toMove = game.getPiece(ply);
+            double[] x = new double[PatternEvaluator.FEATURE_COUNT];
+            PatternEvaluator.features(position, toMove, x);
+            features.add(x);
+            labels.add(winner == Piece.EMPTY ? 0.5 : winner == toMove ? 1.0 : 0.0);
+            position = position.withMove(game.getMove(ply), toMove);
+        }
+    }
+
+    private static double predict(double[] weights, double[] x) {
+        double z = 0;
+        for (int i = 0; i < weights.length; i++) z += weights[i] * x[i];
+        return 1 / (1 + Math.exp(-z));
+    }
+
+    private static void shuffle(int[] order, Random random) {
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+    }
+}
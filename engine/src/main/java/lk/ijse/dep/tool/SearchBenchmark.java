@@ -0,0 +1,121 @@
+package lk.ijse.dep.tool;
+
+import lk.ijse.dep.service.AiPlayer;
+import lk.ijse.dep.service.Board;
+import lk.ijse.dep.service.BoardImpl;
+import lk.ijse.dep.service.Piece;
+import lk.ijse.dep.service.SearchSettings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Measures search throughput, in playouts per second, for a list of leaf batch sizes.
+ * Every batch size searches the same fixed positions with the same seeds, after a warm-up of all of them.
+ *
+ * Usage: SearchBenchmark [--settings &lt;settings&gt;] [--batch 1,4,16] [--positions n] [--rounds n]
+ * where settings are given as in {@link SearchSettings#parse(String)}, e.g. {@code --settings parallelPlayouts=true}.
+ */
+public class SearchBenchmark {
+
+    private SearchSettings settings = new SearchSettings();
+    private int[] batchSizes = {1, 2, 4, 8, 16, 32, 64};
+    private int positions = 16;
+    private int rounds = 5;
+
+    public static void main(String[] args) {
+        SearchBenchmark benchmark = new SearchBenchmark();
+        try {
+            benchmark.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: SearchBenchmark [--settings <settings>] [--batch 1,4,16] [--positions n] [--rounds n]");
+            System.exit(2);
+        }
+        benchmark.run();
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) throw new IllegalArgumentException("Missing value for " + args[i]);
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--settings":
+                    settings = SearchSettings.parse(value);
+                    break;
+                case "--batch":
+                    String[] sizes = value.split(",");
+                    batchSizes = new int[sizes.length];
+                    for (int j = 0; j < sizes.length; j++) batchSizes[j] = Integer.parseInt(sizes[j].trim());
+                    break;
+                case "--positions":
+                    positions = Integer.parseInt(value);
+                    break;
+                case "--rounds":
+                    rounds = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+    }
+
+    private void run() {
+        List<Board> boards = positions(positions);
+        System.out.println("Settings: " + settings);
+        //Every batch size once before measuring, so none of them pays for the JIT
+        for (int warmup = 0; warmup < 2; warmup++) {
+            for (int batchSize : batchSizes) {
+                searchAll(boards, withBatch(batchSize));
+            }
+        }
+        System.out.println("batch  playouts/s  ms/search");
+        for (int batchSize : batchSizes) {
+            SearchSettings batchSettings = withBatch(batchSize);
+            long start = System.nanoTime();
+            for (int round = 0; round < rounds; round++) {
+                searchAll(boards, batchSettings);
+            }
+            long elapsed = System.nanoTime() - start;
+            int searches = rounds * boards.size();
+            System.out.printf(Locale.ROOT, "%5d  %10.0f  %9.2f%n", batchSize,
+                    (double) searches * settings.getIterations() / elapsed * 1e9, elapsed / 1e6 / searches);
+        }
+    }
+
+    private SearchSettings withBatch(int batchSize) {
+        SearchSettings batchSettings = new SearchSettings(settings);
+        batchSettings.setBatchSize(batchSize);
+        return batchSettings;
+    }
+
+    private static void searchAll(List<Board> boards, SearchSettings settings) {
+        for (int i = 0; i < boards.size(); i++) {
+            settings.setSeed((long) i);
+            Board board = boards.get(i);
+            AiPlayer.search(board, board.getPosition().sideToMove(), settings);
+        }
+    }
+
+    //Positions a few random moves into a game, the same ones on every run
+    private static List<Board> positions(int count) {
+        Random random = new Random(7);
+        List<Board> boards = new ArrayList<>();
+        while (boards.size() < count) {
+            Board board = new BoardImpl(null);
+            int moves = boards.size() % 12;
+            Piece piece = Piece.BLUE;
+            while (moves > 0) {
+                int col = random.nextInt(Board.NUM_OF_COLS);
+                if (!board.isLegalMove(col)) continue;
+                board.updateMove(col, piece);
+                piece = (piece == Piece.BLUE) ? Piece.GREEN : Piece.BLUE;
+                moves--;
+            }
+            if (!board.getPosition().isTerminal()) boards.add(board);
+        }
+        return boards;
+    }
+}
@@ -0,0 +1,244 @@
+package lk.ijse.dep.tool;
+
+import lk.ijse.dep.record.GameRecordReader;
+import lk.ijse.dep.record.GameRecordWriter;
+import lk.ijse.dep.service.AiPlayer;
+import lk.ijse.dep.service.Board;
+import lk.ijse.dep.service.BoardImpl;
+import lk.ijse.dep.service.Piece;
+import lk.ijse.dep.service.SearchResult;
+import lk.ijse.dep.service.SearchCache;
+import lk.ijse.dep.service.SearchSettings;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Generates self-play games for tuning: a pool of threads plays the engine against itself on headless
+ * boards and a single writer appends the games, with the visit shares of every search, to a game record file.
+ *
+ * Games are numbered and written in that order. At most --queue games are in flight at any time (played,
+ * waiting to be written or queued for the writer): a producer waits for a permit before it starts a game and
+ * the writer hands the permit back once the game is on disk, so memory stays flat however slow the disk is.
+ * Every game is flushed as soon as it is written. Running the same command again resumes the file: a game cut
+ * off by the interruption is truncated away and production carries on from the number of complete games, so
+ * nothing is written twice. With --seed the resumed games are the ones the first run would have played.
+ *
+ * Usage: SelfPlay --out &lt;file&gt; [--games n] [--threads n] [--queue n] [--settings &lt;settings&gt;] [--seed n]
+ */
+public class SelfPlay {
+
+    private Path out;
+    private int games = 1000;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int queue;
+    private SearchSettings settings = new SearchSettings();
+    private Long seed;
+
+    public static void main(String[] args) throws Exception {
+        SelfPlay selfPlay = new SelfPlay();
+        try {
+            selfPlay.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: SelfPlay --out <file> [--games n] [--threads n] [--queue n] [--settings <settings>] [--seed n]");
+            System.exit(2);
+        }
+        selfPlay.run();
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) throw new IllegalArgumentException("Missing value for " + args[i]);
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--out":
+                    out = Paths.get(value);
+                    break;
+                case "--games":
+                    games = Integer.parseInt(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--queue":
+                    queue = Integer.parseInt(value);
+                    break;
+                case "--settings":
+                    settings = SearchSettings.parse(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (out == null) throw new IllegalArgumentException("Missing --out");
+        if (threads < 1) throw new IllegalArgumentException("At least one thread is required");
+        if (queue == 0) queue = 4 * threads;
+        if (queue < threads) throw new IllegalArgumentException("The queue must hold at least one game per thread");
+    }
+
+    private void run() throws IOException, InterruptedException {
+        int done = resume();
+        System.out.println("Settings: " + settings);
+        if (done >= games) {
+            System.out.println(out + " already holds " + done + " games");
+            return;
+        }
+        if (done > 0) System.out.println("Resuming after " + done + " games");
+
+        Semaphore permits = new Semaphore(queue);
+        BlockingQueue<SelfPlayGame> played = new ArrayBlockingQueue<>(queue);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        SplittableRandom seeds = seed != null ? new SplittableRandom(seed) : null;
+        //The games already on file used the first splits
+        for (int game = 0; seeds != null && game < done; game++) seeds.split();
+
+        long start = System.nanoTime();
+        Thread producer = new Thread(() -> {
+            try {
+                for (int game = done; game < games; game++) {
+                    //Taken in game order, so the game the writer waits for always holds a permit
+                    permits.acquire();
+                    int index = game;
+                    SplittableRandom gameSeeds = seeds != null ? seeds.split() : null;
+                    pool.execute(() -> {
+                        try {
+                            SelfPlayGame result;
+                            try {
+                                result = play(index, gameSeeds);
+                            } catch (RuntimeException e) {
+                                //Handed to the writer, which would otherwise wait for this game forever
+                                result = new SelfPlayGame(index);
+                                result.failure = e;
+                            }
+                            played.put(result);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "self-play-producer");
+        producer.start();
+
+        Map<Integer, SelfPlayGame> pending = new HashMap<>();
+        int next = done;
+        int maxPending = 0;
+        long moves = 0;
+        try (GameRecordWriter writer = new GameRecordWriter(out)) {
+            while (next < games) {
+                SelfPlayGame game = played.take();
+                pending.put(game.index, game);
+                maxPending = Math.max(maxPending, pending.size());
+                while ((game = pending.remove(next)) != null) {
+                    if (game.failure != null) throw new IllegalStateException("Game " + game.index + " failed", game.failure);
+                    write(writer, game);
+                    moves += game.moves.size();
+                    permits.release();
+                    next++;
+                    if ((next - done) % 100 == 0) progress(next - done, start);
+                }
+            }
+        } finally {
+            producer.interrupt();
+            pool.shutdownNow();
+        }
+
+        int written = games - done;
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int cores = Math.min(threads, Runtime.getRuntime().availableProcessors());
+        System.out.printf(Locale.ROOT, "%d games, %d moves in %.1f s: %.2f games/s, %.2f games/s per core%n",
+                written, moves, seconds, written / seconds, written / seconds / cores);
+        System.out.println("Most games waiting to be written: " + maxPending + " of " + queue);
+        if (settings.isSharedCache()) System.out.println("Shared cache: " + SearchCache.getShared());
+    }
+
+    //Counts the complete games already in the file and cuts off whatever follows them: a game left half written or damaged data
+    private int resume() throws IOException {
+        if (Files.notExists(out) || Files.size(out) == 0) return 0;
+        int count = 0;
+        long validLength;
+        boolean corrupted;
+        try (GameRecordReader reader = new GameRecordReader(out)) {
+            reader.setLenient(true);
+            while (reader.read() != null) count++;
+            validLength = reader.getValidLength();
+            corrupted = reader.isCorrupted();
+        }
+        long size = Files.size(out);
+        if (validLength < size) {
+            System.out.println("Cutting off " + (size - validLength) + " bytes after the last complete game"
+                    + (corrupted ? ", they are damaged" : ", a game left half written"));
+            try (FileChannel channel = FileChannel.open(out, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+        return count;
+    }
+
+    private SelfPlayGame play(int index, SplittableRandom seeds) {
+        Board board = new BoardImpl(null);
+        SelfPlayGame game = new SelfPlayGame(index);
+        Piece piece = Piece.BLUE;
+        while (!board.getPosition().isTerminal()) {
+            SearchSettings moveSettings = settings;
+            if (seeds != null) {
+                moveSettings = new SearchSettings(settings);
+                moveSettings.setSeed(seeds.nextLong());
+            }
+            SearchResult search = AiPlayer.search(board, piece, moveSettings);
+            board.updateMove(search.getMove(), piece);
+            game.moves.add(search);
+            piece = (piece == Piece.BLUE) ? Piece.GREEN : Piece.BLUE;
+        }
+        game.winner = board.getPosition().winner();
+        return game;
+    }
+
+    private static void write(GameRecordWriter writer, SelfPlayGame game) {
+        try {
+            writer.beginGame(Piece.BLUE, true);
+            for (SearchResult move : game.moves) writer.recordMove(move.getMove(), move.getVisits());
+            writer.endGame(game.winner);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void progress(int written, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf(Locale.ROOT, "%d games, %.2f games/s%n", written, written / seconds);
+    }
+
+    private static class SelfPlayGame {
+        private final int index;
+        private final List<SearchResult> moves = new ArrayList<>();
+        private Piece winner;
+        private RuntimeException failure;
+
+        private SelfPlayGame(int index) {
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package lk.ijse.dep.tool;
+
+import lk.ijse.dep.record.GameRecordWriter;
+import lk.ijse.dep.service.SearchCache;
+import lk.ijse.dep.service.SearchSettings;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays two search configurations against each other, alternating who moves first, and reports
+ * the score of the first one with an Elo estimate and the average time per move of each.
+ *
+ * Usage: Tournament --a &lt;settings&gt; --b &lt;settings&gt; [--games n] [--threads n] [--seed n] [--record file]
+ * where settings are given as in {@link SearchSettings#parse(String)}, e.g. {@code --a rave=true,iterations=1000}.
+ * With --seed every search gets its own seed drawn from it, so the whole tournament can be replayed
+ * move for move whatever the number of threads, or spread over several hosts with {@link Coordinator}.
+ * That holds as long as neither engine uses gameTime or sharedCache, whose searches depend on timing.
+ * With --record the games are appended, in game order, to a game record file, e.g. to train a {@link lk.ijse.dep.service.PatternEvaluator}.
+ */
+public class Tournament {
+
+    private SearchSettings engineA = new SearchSettings();
+    private SearchSettings engineB = new SearchSettings();
+    private int games = 100;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private Long seed;
+    private GameRecordWriter recorder;
+
+    public static void main(String[] args) throws Exception {
+        Tournament tournament = new Tournament();
+        try {
+            tournament.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: Tournament --a <settings> --b <settings> [--games n] [--threads n] [--seed n] [--record file]");
+            System.exit(2);
+        }
+        try {
+            tournament.run();
+        } finally {
+            if (tournament.recorder != null) tournament.recorder.close();
+        }
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) throw new IllegalArgumentException("Missing value for " + args[i]);
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--a":
+                    engineA = SearchSettings.parse(value);
+                    break;
+                case "--b":
+                    engineB = SearchSettings.parse(value);
+                    break;
+                case "--games":
+                    games = Integer.parseInt(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--record":
+                    try {
+                        recorder = new GameRecordWriter(Paths.get(value));
+                    } catch (IOException e) {
+                        throw new IllegalArgumentException("Can't open " + value + ": " + e.getMessage());
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+    }
+
+    private void run() throws InterruptedException, ExecutionException, IOException {
+        System.out.println("A: " + engineA);
+        System.out.println("B: " + engineB);
+        TournamentGame.checkReproducible(seed, engineA, engineB);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<TournamentGame>> futures = new ArrayList<>();
+        SplittableRandom seeds = seed != null ? new SplittableRandom(seed) : null;
+        for (int game = 0; game < games; game++) {
+            int index = game;
+            //Drawn in game order, each game gets the same random numbers on any thread or host
+            Long gameSeed = seeds != null ? seeds.nextLong() : null;
+            futures.add(pool.submit(() -> TournamentGame.play(index, engineA, engineB, gameSeed)));
+        }
+        pool.shutdown();
+
+        List<TournamentGame> results = new ArrayList<>();
+        for (Future<TournamentGame> future : futures) {
+            TournamentGame result = future.get();
+            results.add(result);
+            if (recorder != null) result.record(recorder);
+        }
+        TournamentGame.report(results);
+        if (engineA.isSharedCache() || engineB.isSharedCache()) {
+            System.out.println("Shared cache: " + SearchCache.getShared());
+        }
+    }
+}
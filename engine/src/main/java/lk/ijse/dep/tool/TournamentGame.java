@@ -0,0 +1,199 @@
+package lk.ijse.dep.tool;
+
+import lk.ijse.dep.record.GameRecordWriter;
+import lk.ijse.dep.service.AiPlayer;
+import lk.ijse.dep.service.Board;
+import lk.ijse.dep.service.BoardImpl;
+import lk.ijse.dep.service.Piece;
+import lk.ijse.dep.service.SearchResult;
+import lk.ijse.dep.service.SearchSettings;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One game between two search configurations and what it cost each of them. Played the same way by
+ * {@link Tournament} and by cluster {@link Worker}s, so the same seed gives the same game on any host.
+ */
+class TournamentGame {
+
+    final int index;
+    final List<Integer> moves = new ArrayList<>();
+    Piece winningPiece = Piece.EMPTY;
+    char winner = '-';
+    long nanosA;
+    long nanosB;
+    int movesA;
+    int movesB;
+    long playoutsA;
+    long playoutsB;
+    int peakNodesA;
+    int peakNodesB;
+    long evictionsA;
+    long evictionsB;
+
+    TournamentGame(int index) {
+        this.index = index;
+    }
+
+    /* A seed replays the games of an engine only when its searches depend on nothing else: a game time makes
+       every search stop on the clock, and the shared cache hands over results of games played on other threads
+     */
+    static boolean isReproducible(SearchSettings settings) {
+        return settings.getGameTime() == 0 && !settings.isSharedCache();
+    }
+
+    //Warns when --seed can't replay the games
+    static void checkReproducible(Long seed, SearchSettings engineA, SearchSettings engineB) {
+        if (seed != null && !(isReproducible(engineA) && isReproducible(engineB))) {
+            System.out.println("Note: gameTime and sharedCache depend on timing, the seed won't replay these games");
+        }
+    }
+
+    //A moves first in the even games. With a seed every search gets its own seed drawn from it
+    static TournamentGame play(int index, SearchSettings engineA, SearchSettings engineB, Long seed) {
+        SplittableRandom seeds = seed != null ? new SplittableRandom(seed) : null;
+        Board board = new BoardImpl(null);
+        TournamentGame game = new TournamentGame(index);
+        Piece piece = Piece.BLUE;
+        boolean aToMove = index % 2 == 0;
+        //Clocks of the engines that play with a game time
+        long timeLeftA = TimeUnit.MILLISECONDS.toNanos(engineA.getGameTime());
+        long timeLeftB = TimeUnit.MILLISECONDS.toNanos(engineB.getGameTime());
+        while (!board.getPosition().isTerminal()) {
+            long start = System.nanoTime();
+            SearchSettings settings = aToMove ? engineA : engineB;
+            if (seeds != null) {
+                settings = new SearchSettings(settings);
+                settings.setSeed(seeds.nextLong());
+            }
+            SearchResult search = AiPlayer.search(board, piece, settings, aToMove ? timeLeftA : timeLeftB);
+            int col = search.getMove();
+            long elapsed = System.nanoTime() - start;
+            if (aToMove) {
+                game.nanosA += elapsed;
+                timeLeftA -= elapsed;
+                game.movesA++;
+                game.playoutsA += playouts(search);
+                game.peakNodesA = Math.max(game.peakNodesA, search.getPeakNodes());
+                game.evictionsA += search.getEvictions();
+            } else {
+                game.nanosB += elapsed;
+                timeLeftB -= elapsed;
+                game.movesB++;
+                game.playoutsB += playouts(search);
+                game.peakNodesB = Math.max(game.peakNodesB, search.getPeakNodes());
+                game.evictionsB += search.getEvictions();
+            }
+            board.updateMove(col, piece);
+            game.moves.add(col);
+            if (board.getPosition().winner() != Piece.EMPTY) {
+                game.winningPiece = piece;
+                game.winner = aToMove ? 'A' : 'B';
+            }
+            piece = (piece == Piece.BLUE) ? Piece.GREEN : Piece.BLUE;
+            aToMove = !aToMove;
+        }
+        return game;
+    }
+
+    //Visits of the root's children, with a game time the iterations setting says nothing about them
+    private static long playouts(SearchResult search) {
+        long playouts = 0;
+        for (int visits : search.getVisits()) playouts += visits;
+        return playouts;
+    }
+
+    void record(GameRecordWriter recorder) throws IOException {
+        recorder.beginGame(Piece.BLUE);
+        for (int col : moves) recorder.recordMove(col);
+        recorder.endGame(winningPiece);
+    }
+
+    //Tab separated, for the wire between workers and the coordinator
+    String encode() {
+        StringBuilder columns = new StringBuilder();
+        for (int col : moves) columns.append(col);
+        return String.join("\t", String.valueOf(index), String.valueOf(winner), winningPiece.name(),
+                String.valueOf(nanosA), String.valueOf(nanosB), String.valueOf(movesA), String.valueOf(movesB),
+                String.valueOf(playoutsA), String.valueOf(playoutsB),
+                String.valueOf(peakNodesA), String.valueOf(peakNodesB), String.valueOf(evictionsA),
+                String.valueOf(evictionsB), columns.toString());
+    }
+
+    static TournamentGame decode(String text) {
+        String[] fields = text.split("\t");
+        if (fields.length != 14) throw new IllegalArgumentException("Not a game result: " + text);
+        TournamentGame game = new TournamentGame(Integer.parseInt(fields[0]));
+        game.winner = fields[1].charAt(0);
+        game.winningPiece = Piece.valueOf(fields[2]);
+        game.nanosA = Long.parseLong(fields[3]);
+        game.nanosB = Long.parseLong(fields[4]);
+        game.movesA = Integer.parseInt(fields[5]);
+        game.movesB = Integer.parseInt(fields[6]);
+        game.playoutsA = Long.parseLong(fields[7]);
+        game.playoutsB = Long.parseLong(fields[8]);
+        game.peakNodesA = Integer.parseInt(fields[9]);
+        game.peakNodesB = Integer.parseInt(fields[10]);
+        game.evictionsA = Long.parseLong(fields[11]);
+        game.evictionsB = Long.parseLong(fields[12]);
+        for (char c : fields[13].toCharArray()) game.moves.add(c - '0');
+        return game;
+    }
+
+    /**
+     * Prints the score of A with an Elo estimate, and the time and tree sizes of both engines.
+     * The games are summed in index order, so the same games give the same figures wherever they were played.
+     */
+    static void report(List<TournamentGame> games) {
+        int winsA = 0, winsB = 0, draws = 0;
+        long nanosA = 0, nanosB = 0;
+        int movesA = 0, movesB = 0;
+        long playoutsA = 0, playoutsB = 0;
+        int peakNodesA = 0, peakNodesB = 0;
+        long evictionsA = 0, evictionsB = 0;
+        for (TournamentGame game : games) {
+            if (game.winner == 'A') winsA++;
+            else if (game.winner == 'B') winsB++;
+            else draws++;
+            nanosA += game.nanosA;
+            nanosB += game.nanosB;
+            movesA += game.movesA;
+            movesB += game.movesB;
+            playoutsA += game.playoutsA;
+            playoutsB += game.playoutsB;
+            peakNodesA = Math.max(peakNodesA, game.peakNodesA);
+            peakNodesB = Math.max(peakNodesB, game.peakNodesB);
+            evictionsA += game.evictionsA;
+            evictionsB += game.evictionsB;
+        }
+
+        double score = (winsA + draws / 2.0) / games.size();
+        System.out.printf(Locale.ROOT, "A wins %d, B wins %d, draws %d, score of A %.1f%%, Elo %+.0f +/- %.0f%n",
+                winsA, winsB, draws, score * 100, elo(score), eloMargin(winsA, winsB, draws));
+        System.out.printf(Locale.ROOT, "Average time per move: A %.2f ms, B %.2f ms%n",
+                nanosA / 1e6 / Math.max(1, movesA), nanosB / 1e6 / Math.max(1, movesB));
+        System.out.printf(Locale.ROOT, "Playouts per second: A %.0f, B %.0f%n",
+                (double) playoutsA / Math.max(1, nanosA) * 1e9, (double) playoutsB / Math.max(1, nanosB) * 1e9);
+        System.out.printf(Locale.ROOT, "Largest tree: A %d nodes, B %d nodes; evictions per move: A %.0f, B %.0f%n",
+                peakNodesA, peakNodesB, evictionsA / (double) Math.max(1, movesA), evictionsB / (double) Math.max(1, movesB));
+    }
+
+    private static double elo(double score) {
+        score = Math.min(Math.max(score, 1e-3), 1 - 1e-3);
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    //95% margin of the Elo estimate, from the variance of the per game score
+    private static double eloMargin(int wins, int losses, int draws) {
+        int games = wins + losses + draws;
+        double score = (wins + draws / 2.0) / games;
+        double variance = (wins * Math.pow(1 - score, 2) + losses * Math.pow(score, 2) + draws * Math.pow(0.5 - score, 2)) / games;
+        double margin = 1.96 * Math.sqrt(variance / games);
+        return (elo(score + margin) - elo(score - margin)) / 2;
+    }
+}
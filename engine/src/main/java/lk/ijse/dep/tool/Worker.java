@@ -0,0 +1,120 @@
+package lk.ijse.dep.tool;
+
+import lk.ijse.dep.service.SearchSettings;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays the tournament games handed out by a {@link Coordinator} on headless boards, a batch at a time,
+ * and sends every game back as soon as it is over, or the error of a game that threw, the rest of the batch
+ * goes on. Exits when the coordinator says BYE or goes away.
+ * The settings come with each batch, an evaluator table given as a file must exist on the worker's host.
+ *
+ * Usage: Worker [--host name] [--port n] [--threads n]
+ */
+public class Worker {
+
+    private String host = "localhost";
+    private int port = Coordinator.DEFAULT_PORT;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    public static void main(String[] args) throws Exception {
+        Worker worker = new Worker();
+        try {
+            worker.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: Worker [--host name] [--port n] [--threads n]");
+            System.exit(2);
+        }
+        worker.run();
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) throw new IllegalArgumentException("Missing value for " + args[i]);
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--host":
+                    host = value;
+                    break;
+                case "--port":
+                    port = Integer.parseInt(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (threads < 1) throw new IllegalArgumentException("At least one thread is required");
+    }
+
+    private void run() throws IOException, InterruptedException, ExecutionException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            out.write("HELLO\t" + threads + "\n");
+            out.flush();
+            String line;
+            while ((line = in.readLine()) != null && !line.equals("BYE")) {
+                String[] batch = line.split("\t", -1);
+                if (!batch[0].equals("BATCH") || batch.length != 5) throw new IOException("Unexpected message: " + line);
+                play(batch[1], SearchSettings.parse(batch[2]), SearchSettings.parse(batch[3]),
+                        Integer.parseInt(batch[4]), in, out, pool);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void play(String id, SearchSettings engineA, SearchSettings engineB, int count,
+                             BufferedReader in, Writer out, ExecutorService pool)
+            throws IOException, InterruptedException, ExecutionException {
+        List<Future<?>> games = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String line = in.readLine();
+            if (line == null) throw new IOException("Batch " + id + " cut off");
+            String[] game = line.split("\t");
+            int index = Integer.parseInt(game[0]);
+            long seed = Long.parseLong(game[1]);
+            games.add(pool.submit(() -> {
+                String message;
+                try {
+                    message = "RESULT\t" + TournamentGame.play(index, engineA, engineB, seed).encode();
+                } catch (RuntimeException | Error e) {
+                    //Reported instead of ending the worker, the coordinator decides whether the batch is played again
+                    System.err.println("Game " + index + " of batch " + id + " failed");
+                    e.printStackTrace();
+                    message = "FAILED\t" + index + "\t" + e.toString().replaceAll("\\s+", " ");
+                }
+                synchronized (out) {
+                    out.write(message + "\n");
+                    out.flush();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> game : games) game.get();
+        System.err.println("Batch " + id + " done");
+        synchronized (out) {
+            out.write("DONE\t" + id + "\n");
+            out.flush();
+        }
+    }
+}
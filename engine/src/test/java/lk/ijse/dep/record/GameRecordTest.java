@@ -0,0 +1,206 @@
+package lk.ijse.dep.record;
+
+import lk.ijse.dep.service.Board;
+import lk.ijse.dep.service.Piece;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writing games with {@link GameRecordWriter} and streaming them back with {@link GameRecordReader}, whole,
+ * cut off or followed by garbage.
+ */
+class GameRecordTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void gamesRoundTrip() throws IOException {
+        Path file = dir.resolve("games.c4r");
+        try (GameRecordWriter writer = new GameRecordWriter(file)) {
+            writer.beginGame(Piece.BLUE);
+            for (int col : new int[]{0, 1, 0, 1, 0, 1, 0}) writer.recordMove(col);
+            writer.endGame(Piece.BLUE);
+            //An odd and an even number of moves end the game in a different nibble
+            writer.beginGame(Piece.GREEN);
+            for (int col : new int[]{5, 4, 3, 2}) writer.recordMove(col);
+            writer.abandonGame();
+            writer.beginGame(Piece.BLUE, true);
+            writer.recordMove(2, new int[]{0, 10, 30, 0, 0, 0});
+            writer.recordMove(3, new int[]{5, 5, 5, 5, 5, 5});
+            writer.endGame(Piece.EMPTY);
+        }
+
+        List<GameRecord> games = readAll(file);
+        assertEquals(3, games.size());
+
+        GameRecord won = games.get(0);
+        assertEquals(Piece.BLUE, won.getFirstPiece());
+        assertArrayEquals(new int[]{0, 1, 0, 1, 0, 1, 0}, moves(won));
+        assertEquals(Piece.BLUE, won.getWinner());
+        assertTrue(won.isFinished());
+        assertFalse(won.hasStatistics());
+
+        GameRecord abandoned = games.get(1);
+        assertEquals(Piece.GREEN, abandoned.getFirstPiece());
+        assertEquals(Piece.BLUE, abandoned.getPiece(1));
+        assertArrayEquals(new int[]{5, 4, 3, 2}, moves(abandoned));
+        assertFalse(abandoned.isFinished());
+
+        GameRecord drawn = games.get(2);
+        assertTrue(drawn.isFinished());
+        assertEquals(Piece.EMPTY, drawn.getWinner());
+        assertTrue(drawn.hasStatistics());
+        assertEquals(0.75, drawn.getVisitShare(0, 2), 0.01);
+        assertEquals(1 / 6.0, drawn.getVisitShare(1, 0), 0.01);
+    }
+
+    //Old files must keep their meaning whatever codes Piece uses
+    @Test
+    void resultNibblesAreFixed() throws IOException {
+        Path file = dir.resolve("results.c4r");
+        try (GameRecordWriter writer = new GameRecordWriter(file)) {
+            for (Piece winner : new Piece[]{Piece.EMPTY, Piece.BLUE, Piece.GREEN, null}) {
+                writer.beginGame(Piece.BLUE);
+                writer.recordMove(0);
+                if (winner != null) writer.endGame(winner);
+                else writer.abandonGame();
+            }
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        //Per game: the header, move 0 with the end nibble, then the result nibble and the padding
+        byte[] games = {(byte) 0xA0, 0x0F, 0x00, (byte) 0xA0, 0x0F, 0x10, (byte) 0xA0, 0x0F, 0x20, (byte) 0xA0, 0x0F, 0x30};
+        assertArrayEquals(games, Arrays.copyOfRange(bytes, GameRecordWriter.HEADER_LENGTH, bytes.length));
+
+        List<GameRecord> read = readAll(file);
+        assertEquals(Piece.EMPTY, read.get(0).getWinner());
+        assertEquals(Piece.BLUE, read.get(1).getWinner());
+        assertEquals(Piece.GREEN, read.get(2).getWinner());
+        assertFalse(read.get(3).isFinished());
+    }
+
+    @Test
+    void gameCutOffAtTheEndIsIgnored() throws IOException {
+        Path file = twoGames();
+        long complete = Files.size(file);
+        //A crash after a game marker and four moves, closing the writer would have ended the game as abandoned
+        Files.write(file, new byte[]{(byte) GameRecordWriter.GAME_MARKER, 0x33, 0x20}, StandardOpenOption.APPEND);
+        try (GameRecordReader reader = new GameRecordReader(file)) {
+            assertEquals(2, count(reader));
+            assertEquals(complete, reader.getValidLength());
+        }
+    }
+
+    @Test
+    void strictReaderRejectsGarbage() throws IOException {
+        Path file = twoGames();
+        Files.write(file, new byte[]{0x13}, StandardOpenOption.APPEND);
+        try (GameRecordReader reader = new GameRecordReader(file)) {
+            assertEquals(2, readUntilFailure(reader));
+        }
+    }
+
+    @Test
+    void lenientReaderStopsAtGarbage() throws IOException {
+        Path file = twoGames();
+        long complete = Files.size(file);
+        //A game marker, then a move nibble that is no column
+        Files.write(file, new byte[]{(byte) GameRecordWriter.GAME_MARKER, (byte) 0x9F, 0x13}, StandardOpenOption.APPEND);
+        try (GameRecordReader reader = new GameRecordReader(file)) {
+            reader.setLenient(true);
+            assertEquals(2, count(reader));
+            assertTrue(reader.isCorrupted());
+            assertNull(reader.read());
+            assertEquals(complete, reader.getValidLength());
+        }
+    }
+
+    @Test
+    void newGamesFollowTheLastCompleteOne() throws IOException {
+        Path file = twoGames();
+        long complete = Files.size(file);
+        Files.write(file, new byte[]{(byte) GameRecordWriter.GAME_MARKER, 0x33, 0x20}, StandardOpenOption.APPEND);
+        try (GameRecordWriter writer = new GameRecordWriter(file)) {
+            assertEquals(complete, Files.size(file));
+            writer.beginGame(Piece.GREEN);
+            writer.recordMove(4);
+            writer.endGame(Piece.EMPTY);
+        }
+        //Damaged bytes are cut off as well
+        Files.write(file, new byte[]{0x13, 0x37}, StandardOpenOption.APPEND);
+        try (GameRecordWriter writer = new GameRecordWriter(file)) {
+            writer.beginGame(Piece.BLUE);
+            writer.recordMove(1);
+            writer.endGame(Piece.EMPTY);
+        }
+        List<GameRecord> games = readAll(file);
+        assertEquals(4, games.size());
+        assertArrayEquals(new int[]{4}, moves(games.get(2)));
+        assertArrayEquals(new int[]{1}, moves(games.get(3)));
+    }
+
+    @Test
+    void notAGameRecord() throws IOException {
+        Path file = dir.resolve("other.bin");
+        Files.write(file, new byte[]{'C', '4', 'T', 'T', 1});
+        assertThrows(IOException.class, () -> new GameRecordReader(file));
+    }
+
+    private Path twoGames() throws IOException {
+        Path file = dir.resolve("two.c4r");
+        try (GameRecordWriter writer = new GameRecordWriter(file)) {
+            for (int game = 0; game < 2; game++) {
+                writer.beginGame(Piece.BLUE);
+                for (int col = 0; col < Board.NUM_OF_COLS; col++) writer.recordMove(col);
+                writer.endGame(Piece.EMPTY);
+            }
+        }
+        return file;
+    }
+
+    private static int readUntilFailure(GameRecordReader reader) {
+        int count = 0;
+        try {
+            while (reader.read() != null) count++;
+        } catch (IOException e) {
+            return count;
+        }
+        throw new AssertionError("The garbage was read without an error");
+    }
+
+    private static int count(GameRecordReader reader) throws IOException {
+        int count = 0;
+        while (reader.read() != null) count++;
+        return count;
+    }
+
+    private static List<GameRecord> readAll(Path file) throws IOException {
+        List<GameRecord> games = new ArrayList<>();
+        try (GameRecordReader reader = new GameRecordReader(file)) {
+            GameRecord game;
+            while ((game = reader.read()) != null) games.add(game);
+        }
+        return games;
+    }
+
+    private static int[] moves(GameRecord game) {
+        int[] moves = new int[game.getMoveCount()];
+        for (int i = 0; i < moves.length; i++) moves[i] = game.getMove(i);
+        return moves;
+    }
+}
@@ -0,0 +1,82 @@
+package lk.ijse.dep.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The MCTS search of {@link AiPlayer}.
+ */
+class AiPlayerTest {
+
+    @Test
+    void sameSeedSameSearch() {
+        for (String spec : new String[]{"iterations=2000,seed=42", "iterations=2000,seed=42,rave=true,progressiveWidening=true",
+                "iterations=2000,seed=42,batchSize=8,parallelPlayouts=true", "iterations=2000,seed=42,maxNodes=256"}) {
+            Board board = board("2332");
+            SearchResult first = AiPlayer.search(board, Piece.BLUE, SearchSettings.parse(spec));
+            SearchResult second = AiPlayer.search(board, Piece.BLUE, SearchSettings.parse(spec));
+            assertEquals(first.getMove(), second.getMove(), spec);
+            assertEquals(first.getValue(), second.getValue(), spec);
+            assertArrayEquals(first.getVisits(), second.getVisits(), spec);
+        }
+    }
+
+    @Test
+    void searchLeavesTheBoardAlone() {
+        Board board = board("2332");
+        Position before = board.getPosition();
+        AiPlayer.search(board, Piece.BLUE, SearchSettings.parse("iterations=500,seed=1"));
+        assertEquals(before, board.getPosition());
+    }
+
+    @Test
+    void provesAWinInOne() {
+        SearchResult result = AiPlayer.search(board("010101"), Piece.BLUE, SearchSettings.parse("iterations=20000,tactics=false,seed=1"));
+        assertEquals(0, result.getMove());
+        assertEquals(1, result.getValue());
+        //The search stops once the root is proven
+        assertTrue(Arrays.stream(result.getVisits()).sum() < 20000);
+    }
+
+    @Test
+    void provesALoss() {
+        //BLUE holds columns 1 to 3 of the bottom row with both ends open, whatever GREEN plays BLUE wins next
+        SearchResult result = AiPlayer.search(board("11223"), Piece.GREEN, SearchSettings.parse("iterations=20000,tactics=false,seed=1"));
+        assertEquals(0, result.getValue());
+        assertTrue(Arrays.stream(result.getVisits()).sum() < 20000);
+    }
+
+    @Test
+    void tacticsBlockAThreat() {
+        //BLUE threatens to complete column 0
+        SearchResult result = AiPlayer.search(board("01010"), Piece.GREEN, SearchSettings.parse("iterations=200,seed=1"));
+        assertEquals(0, result.getMove());
+    }
+
+    //The move played is the one the time managers and the analysis see leading
+    @Test
+    void playsTheMostVisitedMove() {
+        //Short searches, where the move with the most wins is now and then not the most visited one
+        for (String moves : new String[]{"", "23324455"}) {
+            for (long seed = 1; seed <= 20; seed++) {
+                for (int iterations : new int[]{100, 300}) {
+                    String spec = "iterations=" + iterations + ",tactics=false,seed=" + seed;
+                    Board board = board(moves);
+                    SearchResult result = AiPlayer.search(board, board.getPosition().sideToMove(), SearchSettings.parse(spec));
+                    assertEquals(Arrays.stream(result.getVisits()).max().getAsInt(), result.getVisits()[result.getMove()], moves + " " + spec);
+                }
+            }
+        }
+    }
+
+    private static Board board(String moves) {
+        Position position = Position.EMPTY;
+        for (char c : moves.toCharArray()) position = position.withMove(c - '0');
+        return new BoardImpl(null, position);
+    }
+}
@@ -0,0 +1,149 @@
+package lk.ijse.dep.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * The bitboard snapshot {@link Position} and the winner of {@link BoardImpl} against the grid scans the board used to do.
+ */
+class PositionTest {
+
+    @Test
+    void boardFollowsItsPosition() {
+        SplittableRandom random = new SplittableRandom(1);
+        Map<Long, Position> keys = new HashMap<>();
+        for (int game = 0; game < 2000; game++) {
+            BoardImpl board = new BoardImpl(null);
+            Piece piece = Piece.BLUE;
+            while (board.existLegalMoves() && board.getPosition().winner() == Piece.EMPTY) {
+                int col = random.nextInt(Board.NUM_OF_COLS);
+                if (!board.isLegalMove(col)) continue;
+                Position before = board.getPosition();
+                board.updateMove(col, piece);
+                Position position = board.getPosition();
+                assertEquals(before.withMove(col, piece), position);
+                assertArrayEquals(board.getPieces(), position.toPieces());
+                assertEquals(position, Position.of(board.getPieces()));
+                //Positions reached by legal play have a key of their own
+                assertEquals(position, keys.computeIfAbsent(position.key(), key -> position));
+                piece = piece == Piece.BLUE ? Piece.GREEN : Piece.BLUE;
+            }
+        }
+    }
+
+    //The game status kept by withMove against working it out from the grid
+    @Test
+    void statusMatchesGridScanDuringGames() {
+        SplittableRandom random = new SplittableRandom(3);
+        for (int game = 0; game < 2000; game++) {
+            BoardImpl board = new BoardImpl(null);
+            Piece piece = Piece.BLUE;
+            int moves = 0;
+            while (!board.getPosition().isTerminal()) {
+                int col = random.nextInt(Board.NUM_OF_COLS);
+                if (!board.isLegalMove(col)) continue;
+                board.updateMove(col, piece);
+                moves++;
+                Position position = board.getPosition();
+                Piece winner = gridScan(board.getPieces()).getWinningPiece();
+                assertEquals(winner, position.winner());
+                assertEquals(winner, Position.of(board.getPieces()).winner());
+                assertEquals(moves, position.moveCount());
+                assertEquals(winner != Piece.EMPTY || moves == Board.NUM_OF_COLS * Board.NUM_OF_ROWS, position.isTerminal());
+                for (int c = 0; c < Board.NUM_OF_COLS; c++) {
+                    assertEquals(board.getPieces()[c][Board.NUM_OF_ROWS - 1] == Piece.EMPTY, (position.legalMoves() & (1 << c)) != 0);
+                }
+                piece = piece == Piece.BLUE ? Piece.GREEN : Piece.BLUE;
+            }
+        }
+    }
+
+    //Cells set one by one without gravity, both sides may have a line
+    @Test
+    void winningLineMatchesGridScanOnAnyGrid() {
+        Piece[] pieces = {Piece.EMPTY, Piece.BLUE, Piece.GREEN};
+        SplittableRandom random = new SplittableRandom(2);
+        for (int i = 0; i < 20000; i++) {
+            BoardImpl board = new BoardImpl(null);
+            for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+                for (int row = 0; row < Board.NUM_OF_ROWS; row++) {
+                    board.updateMove(col, row, pieces[random.nextInt(pieces.length)]);
+                }
+            }
+            Winner expected = gridScan(board.getPieces());
+            Winner actual = board.findWinner();
+            assertEquals(expected.getWinningPiece(), actual.getWinningPiece());
+            if (expected.getWinningPiece() == Piece.EMPTY) continue;
+            assertEquals(expected.getCol1(), actual.getCol1());
+            assertEquals(expected.getRow1(), actual.getRow1());
+            assertEquals(expected.getCol2(), actual.getCol2());
+            assertEquals(expected.getRow2(), actual.getRow2());
+        }
+    }
+
+    @Test
+    void noWinnerIsShared() {
+        BoardImpl board = new BoardImpl(null);
+        assertSame(Winner.NO_WINNER, board.findWinner());
+        board.updateMove(0, Piece.BLUE);
+        assertSame(Winner.NO_WINNER, board.findWinner());
+    }
+
+    @Test
+    void piecesAreACopy() {
+        BoardImpl board = new BoardImpl(null);
+        board.updateMove(2, Piece.BLUE);
+        Position position = board.getPosition();
+        board.getPieces()[2][1] = Piece.GREEN;
+        assertSame(position, board.getPosition());
+        assertEquals(Piece.EMPTY, board.getPieces()[2][1]);
+        assertEquals(1, board.findNextAvailableSpot(2));
+    }
+
+    @Test
+    void mirrorSharesTheCanonicalKey() {
+        Position position = Position.EMPTY.withMove(0).withMove(1).withMove(0);
+        Position mirror = Position.EMPTY.withMove(5).withMove(4).withMove(5);
+        assertEquals(mirror, position.mirror());
+        assertEquals(position.canonicalKey(), mirror.canonicalKey());
+    }
+
+    //The original BoardImpl.findWinner(): vertical lines by column, then horizontal ones by row
+    private static Winner gridScan(Piece[][] pieces) {
+        int count = 0;
+        for (int i = 0; i < pieces.length; i++) {
+            for (int j = 0; j < pieces[i].length - 1; j++) {
+                if (pieces[i][j] == pieces[i][j + 1]) {
+                    count++;
+                    if (count == 3 && pieces[i][j] != Piece.EMPTY) {
+                        return new Winner(pieces[i][j], i, (j - 2), i, (j + 1));
+                    }
+                } else {
+                    count = 0;
+                }
+            }
+            count = 0;
+        }
+        for (int i = 0; i < pieces[0].length; i++) {
+            for (int j = 0; j < pieces.length - 1; j++) {
+                if (pieces[j][i] == pieces[j + 1][i]) {
+                    count++;
+                    if (count == 3 && pieces[j][i] != Piece.EMPTY) {
+                        return new Winner(pieces[j][i], (j - 2), i, (j + 1), i);
+                    }
+                } else {
+                    count = 0;
+                }
+            }
+            count = 0;
+        }
+        return new Winner(Piece.EMPTY);
+    }
+}
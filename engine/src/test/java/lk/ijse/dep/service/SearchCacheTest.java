@@ -0,0 +1,68 @@
+package lk.ijse.dep.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Results stored in and looked up from a {@link SearchCache}: by position and its mirror, by budget and by settings.
+ */
+class SearchCacheTest {
+
+    private static final Position POSITION = Position.EMPTY.withMove(0).withMove(1).withMove(0);
+
+    @Test
+    void putAndGet() {
+        SearchCache cache = new SearchCache(16);
+        SearchSettings settings = SearchSettings.parse("iterations=1000");
+        assertNull(cache.get(POSITION, settings));
+        cache.put(POSITION, settings, new SearchResult(2, 0.6, new int[Board.NUM_OF_COLS]), 1000, 5_000_000);
+
+        SearchResult result = cache.get(POSITION, settings);
+        assertNotNull(result);
+        assertEquals(2, result.getMove());
+        assertEquals(0.6, result.getValue());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(5_000_000, cache.getSavedNanos());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void mirrorGetsTheMirroredMove() {
+        SearchCache cache = new SearchCache(16);
+        SearchSettings settings = SearchSettings.parse("iterations=1000");
+        cache.put(POSITION, settings, new SearchResult(2, 0.6, new int[Board.NUM_OF_COLS]), 1000, 0);
+        SearchResult result = cache.get(POSITION.mirror(), settings);
+        assertNotNull(result);
+        assertEquals(Board.NUM_OF_COLS - 1 - 2, result.getMove());
+    }
+
+    @Test
+    void smallerBudgetsDontAnswerLargerSearches() {
+        SearchCache cache = new SearchCache(16);
+        SearchResult result = new SearchResult(2, 0.6, new int[Board.NUM_OF_COLS]);
+        cache.put(POSITION, SearchSettings.parse("iterations=1000"), result, 1000, 0);
+        //The iterations are not part of the key, a search of fewer may use the result but one of more may not
+        assertNotNull(cache.get(POSITION, SearchSettings.parse("iterations=500")));
+        assertNull(cache.get(POSITION, SearchSettings.parse("iterations=2000")));
+
+        //A proven result answers any search, and a smaller budget doesn't replace it
+        cache.put(POSITION, SearchSettings.parse("iterations=1000"), new SearchResult(3, 1, new int[Board.NUM_OF_COLS]), SearchCache.PROVEN, 0);
+        cache.put(POSITION, SearchSettings.parse("iterations=1000"), result, 1000, 0);
+        assertEquals(3, cache.get(POSITION, SearchSettings.parse("iterations=1000000")).getMove());
+    }
+
+    @Test
+    void otherSettingsMiss() {
+        SearchCache cache = new SearchCache(16);
+        cache.put(POSITION, SearchSettings.parse("iterations=1000"), new SearchResult(2, 0.6, new int[Board.NUM_OF_COLS]), 1000, 0);
+        assertNull(cache.get(POSITION, SearchSettings.parse("iterations=1000,rave=true")));
+        assertNull(cache.get(POSITION, SearchSettings.parse("iterations=1000,explorationConstant=2")));
+        assertNull(cache.get(POSITION, SearchSettings.parse("iterations=1000,tactics=false")));
+        //The seed changes which playouts run, not what the search is
+        assertNotNull(cache.get(POSITION, SearchSettings.parse("iterations=1000,seed=7")));
+    }
+}
@@ -0,0 +1,43 @@
+package lk.ijse.dep.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Parsing, checking and printing {@link SearchSettings}.
+ */
+class SearchSettingsTest {
+
+    @Test
+    void printedSettingsParseBack() {
+        SearchSettings settings = SearchSettings.parse("iterations=1234,rave=true,maxNodes=500,seed=9,ponderIterations=0");
+        assertEquals(settings.toString(), SearchSettings.parse(settings.toString()).toString());
+    }
+
+    @Test
+    void evaluatorAndBookArePrinted() {
+        SearchSettings settings = SearchSettings.parse("rolloutDepth=8");
+        String plain = settings.toString();
+        float[] weights = new float[PatternEvaluator.FEATURE_COUNT];
+        weights[0] = 1;
+        settings.setEvaluator(new PatternEvaluator(weights));
+        assertNotEquals(plain, settings.toString());
+        settings.setEvaluator(PatternEvaluator.getDefault());
+        assertTrue(settings.toString().contains(",evaluator=default"), settings.toString());
+        settings.setBook(new TranspositionTable(1));
+        assertTrue(settings.toString().contains(",book="), settings.toString());
+    }
+
+    @Test
+    void invalidValuesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> SearchSettings.parse("ponderIterations=-1"));
+        assertThrows(IllegalArgumentException.class, () -> SearchSettings.parse("iterations=0"));
+        assertThrows(IllegalArgumentException.class, () -> SearchSettings.parse("maxNodes=10"));
+        assertThrows(IllegalArgumentException.class, () -> SearchSettings.parse("rave"));
+        assertThrows(IllegalArgumentException.class, () -> SearchSettings.parse("unknown=1"));
+    }
+}
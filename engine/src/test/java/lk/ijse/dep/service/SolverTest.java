@@ -0,0 +1,105 @@
+package lk.ijse.dep.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link Solver} on positions with a known result, and against a plain minimax on positions close to the end.
+ */
+class SolverTest {
+
+    private static final int CELLS = Board.NUM_OF_COLS * Board.NUM_OF_ROWS;
+
+    @Test
+    void winInOne() {
+        //BLUE has three in column 0 and plays the fourth as the 7th piece
+        Position position = play("010101");
+        Solver solver = new Solver();
+        assertEquals((CELLS + 1 - 6) / 2, solver.solve(position, Piece.BLUE));
+        SearchResult result = solver.findBestMove(position, Piece.BLUE);
+        assertEquals(0, result.getMove());
+        assertEquals(1, result.getValue());
+        assertEquals((CELLS + 1 - 6) / 2, solver.getLastScore());
+    }
+
+    @Test
+    void doubleThreatOnTheBottomRow() {
+        //BLUE holds columns 1 and 2 of the bottom row, playing 3 threatens both 0 and 4
+        Position position = play("1122");
+        Solver solver = new Solver();
+        SearchResult result = solver.findBestMove(position, Piece.BLUE);
+        assertEquals(3, result.getMove());
+        assertEquals((CELLS + 1 - 6) / 2, solver.getLastScore());
+        //Whatever GREEN does, BLUE wins with its 4th piece
+        assertEquals(-(CELLS + 1 - 6) / 2, solver.solve(position.withMove(3), Piece.GREEN));
+        assertEquals(0, solver.findBestMove(position.withMove(3), Piece.GREEN).getValue());
+    }
+
+    @Test
+    void matchesMinimaxNearTheEnd() {
+        SplittableRandom random = new SplittableRandom(3);
+        Solver solver = new Solver();
+        int checked = 0;
+        while (checked < 200) {
+            Position position = randomPosition(random, CELLS - 9);
+            if (position == null) continue;
+            Piece toMove = position.sideToMove();
+            int expected = minimax(position);
+            assertEquals(expected, solver.solve(position, toMove), position.toString());
+            solver.findBestMove(position, toMove);
+            assertEquals(expected, solver.getLastScore(), position.toString());
+            checked++;
+        }
+    }
+
+    @Test
+    void noMoveOnAFullBoard() {
+        //Pairs of rows and alternating columns, no line of four anywhere
+        Position position = Position.EMPTY;
+        for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+            for (int row = 0; row < Board.NUM_OF_ROWS; row++) {
+                position = position.with(col, row, (row / 2 + col) % 2 == 0 ? Piece.BLUE : Piece.GREEN);
+            }
+        }
+        Position full = position;
+        assertEquals(0, new Solver().solve(full, Piece.BLUE));
+        assertThrows(IllegalArgumentException.class, () -> new Solver().findBestMove(full, Piece.BLUE));
+    }
+
+    //Same scores as the Solver: a win for the piece that plays the n-th piece is worth (31 - n) / 2
+    private static int minimax(Position position) {
+        Piece toMove = position.sideToMove();
+        int moves = position.moveCount();
+        for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+            if (position.isWinningMove(col, toMove)) return (CELLS + 1 - moves) / 2;
+        }
+        if (!position.hasLegalMoves()) return 0;
+        int best = Integer.MIN_VALUE;
+        for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+            if (position.isLegalMove(col)) best = Math.max(best, -minimax(position.withMove(col)));
+        }
+        return best;
+    }
+
+    //A random game of the given number of moves nobody has won yet, or null
+    private static Position randomPosition(SplittableRandom random, int moves) {
+        Position position = Position.EMPTY;
+        while (position.moveCount() < moves) {
+            int col = random.nextInt(Board.NUM_OF_COLS);
+            if (!position.isLegalMove(col)) continue;
+            position = position.withMove(col);
+            if (position.isTerminal()) return null;
+        }
+        return position;
+    }
+
+    private static Position play(String moves) {
+        Position position = Position.EMPTY;
+        for (char c : moves.toCharArray()) position = position.withMove(c - '0');
+        return position;
+    }
+}
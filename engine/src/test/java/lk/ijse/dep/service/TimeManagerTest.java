@@ -0,0 +1,98 @@
+package lk.ijse.dep.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Budgets and stop decisions of {@link FixedTimeManager} and {@link AdaptiveTimeManager}.
+ */
+class TimeManagerTest {
+
+    private static final long MS = 1_000_000;
+
+    @Test
+    void targetIsAnEvenShareOfTheTimeLeft() {
+        TimeManager manager = new AdaptiveTimeManager();
+        //15 moves left for the first player on an empty board
+        assertEquals(15_000 * MS / 15, manager.target(Position.EMPTY, 15_000 * MS));
+        assertEquals(15_000 * MS / 14, manager.target(Position.EMPTY.withMove(0).withMove(0), 15_000 * MS));
+        //Never fewer than 3 moves, never a negative target
+        Position late = Position.EMPTY;
+        for (int i = 0; i < 28; i++) late = late.withMove(i % 6 < 3 ? i % 3 : 3 + i % 3);
+        assertEquals(900 * MS / 3, manager.target(late, 900 * MS));
+        assertEquals(0, manager.target(Position.EMPTY, -5 * MS));
+        assertEquals(manager.target(late, 900 * MS), new FixedTimeManager().target(late, 900 * MS));
+    }
+
+    @Test
+    void fixedStopsAtTheTarget() {
+        TimeManager manager = new FixedTimeManager();
+        assertEquals(TimeManager.Decision.CONTINUE, manager.check(status(2, 99 * MS, 100, 50, 50)));
+        assertEquals(TimeManager.Decision.TARGET, manager.check(status(2, 100 * MS, 100, 50, 50)));
+    }
+
+    @Test
+    void forcedMoveStopsAtOnce() {
+        assertEquals(TimeManager.Decision.FORCED, new AdaptiveTimeManager().check(status(1, 0, 0, 0, 0)));
+    }
+
+    @Test
+    void dominantMoveStopsEarly() {
+        TimeManager manager = new AdaptiveTimeManager();
+        //A quarter of the target, 800 of 1000 visits
+        assertEquals(TimeManager.Decision.DOMINANT, manager.check(status(6, 25 * MS, 1000, 800, 100)));
+        //Too soon, too few playouts, or not enough of them
+        assertEquals(TimeManager.Decision.CONTINUE, manager.check(status(6, 20 * MS, 1000, 800, 100)));
+        assertEquals(TimeManager.Decision.CONTINUE, manager.check(status(6, 25 * MS, 400, 320, 40)));
+        assertEquals(TimeManager.Decision.CONTINUE, manager.check(status(6, 25 * MS, 1000, 700, 200)));
+    }
+
+    @Test
+    void closeMovesExtendTheSearch() {
+        TimeManager manager = new AdaptiveTimeManager();
+        assertEquals(TimeManager.Decision.TARGET, manager.check(status(6, 100 * MS, 1000, 600, 300)));
+        assertEquals(TimeManager.Decision.EXTEND, manager.check(status(6, 100 * MS, 1000, 450, 400)));
+        //Up to three times the target
+        assertEquals(TimeManager.Decision.EXTEND, manager.check(status(6, 299 * MS, 1000, 450, 400)));
+        assertEquals(TimeManager.Decision.LIMIT, manager.check(status(6, 300 * MS, 1000, 450, 400)));
+    }
+
+    @Test
+    void recentChangeExtendsTheSearch() {
+        TimeManager manager = new AdaptiveTimeManager();
+        TimeManager.Status status = status(6, 50 * MS, 1000, 600, 300);
+        status.update(90 * MS, 1000, 600, 300, true);
+        status.update(100 * MS, 1000, 600, 300, false);
+        assertEquals(TimeManager.Decision.EXTEND, manager.check(status));
+        //Stable since the start of the last 30% of the search
+        status.update(140 * MS, 1000, 600, 300, false);
+        assertEquals(TimeManager.Decision.TARGET, manager.check(status));
+    }
+
+    @Test
+    void extensionNeverTakesMostOfTheTimeLeft() {
+        TimeManager manager = new AdaptiveTimeManager();
+        //100 ms target with 500 ms left: the limit is 200 ms, not 300 ms
+        TimeManager.Status status = new TimeManager.Status();
+        status.start(Position.EMPTY, 6, 100 * MS, 500 * MS);
+        status.update(199 * MS, 1000, 450, 400, false);
+        assertEquals(TimeManager.Decision.EXTEND, manager.check(status));
+        status.update(200 * MS, 1000, 450, 400, false);
+        assertEquals(TimeManager.Decision.LIMIT, manager.check(status));
+        //Even when that is less than the target, the target is used
+        status.start(Position.EMPTY, 6, 100 * MS, 100 * MS);
+        status.update(99 * MS, 1000, 450, 400, false);
+        assertEquals(TimeManager.Decision.CONTINUE, manager.check(status));
+        status.update(100 * MS, 1000, 450, 400, false);
+        assertEquals(TimeManager.Decision.LIMIT, manager.check(status));
+    }
+
+    //A search of a 100 ms target with 10 s left
+    private static TimeManager.Status status(int candidates, long elapsedNanos, int playouts, int best, int second) {
+        TimeManager.Status status = new TimeManager.Status();
+        status.start(Position.EMPTY, candidates, 100 * MS, 10_000 * MS);
+        status.update(elapsedNanos, playouts, best, second, false);
+        return status;
+    }
+}
@@ -0,0 +1,115 @@
+package lk.ijse.dep.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Storing into and probing a {@link TranspositionTable}, and saving and loading it.
+ */
+class TranspositionTableTest {
+
+    //1 MB of 64 byte buckets
+    private static final int BUCKET_BITS = 14;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void storeAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        assertEquals(TranspositionTable.NOT_FOUND, table.probe(42));
+        //Key 0 and a key of all ones must not look like empty slots
+        for (long key : new long[]{42, 0, -1}) {
+            table.store(key, 1000, 600, 3);
+            long data = table.probe(key);
+            assertEquals(1000, TranspositionTable.visits(data));
+            assertEquals(600, TranspositionTable.score(data));
+            assertEquals(3, TranspositionTable.move(data));
+        }
+        assertEquals(3, table.count());
+
+        table.store(42, 2000, 100, TranspositionTable.NO_MOVE);
+        long data = table.probe(42);
+        assertEquals(2000, TranspositionTable.visits(data));
+        assertEquals(TranspositionTable.NO_MOVE, TranspositionTable.move(data));
+        assertEquals(3, table.count());
+    }
+
+    @Test
+    void largeCountsAreScaledDown() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(7, Integer.MAX_VALUE, Integer.MAX_VALUE / 2, 0);
+        long data = table.probe(7);
+        //Both halved twice, the ratio is kept
+        assertEquals(TranspositionTable.MAX_COUNT, TranspositionTable.visits(data));
+        assertEquals(TranspositionTable.MAX_COUNT / 2, TranspositionTable.score(data));
+    }
+
+    @Test
+    void invalidEntriesAreRejected() {
+        TranspositionTable table = new TranspositionTable(1);
+        assertThrows(IllegalArgumentException.class, () -> table.store(1, 10, 11, 0));
+        assertThrows(IllegalArgumentException.class, () -> table.store(1, 10, 5, 16));
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    void leastVisitedEntryMakesRoom() {
+        TranspositionTable table = new TranspositionTable(1);
+        long[] keys = sameBucket(5);
+        int[] visits = {50, 10, 40, 30, 20};
+        for (int i = 0; i < keys.length; i++) table.store(keys[i], visits[i], 0, i);
+        assertEquals(TranspositionTable.NOT_FOUND, table.probe(keys[1]));
+        for (int i : new int[]{0, 2, 3, 4}) assertEquals(visits[i], TranspositionTable.visits(table.probe(keys[i])));
+    }
+
+    @Test
+    void saveAndLoad() throws IOException {
+        TranspositionTable table = new TranspositionTable(1);
+        for (long key = 1; key <= 1000; key++) table.store(key * 0x1F3D5B79L, (int) key, (int) key / 2, (int) (key % 7));
+        Path file = dir.resolve("table.tt");
+        table.save(file);
+
+        TranspositionTable loaded = TranspositionTable.load(file);
+        assertEquals(table.getCapacity(), loaded.getCapacity());
+        assertEquals(table.count(), loaded.count());
+        for (long key = 1; key <= 1000; key++) assertEquals(table.probe(key * 0x1F3D5B79L), loaded.probe(key * 0x1F3D5B79L));
+        assertEquals(TranspositionTable.NOT_FOUND, loaded.probe(3));
+        assertThrows(ReadOnlyBufferException.class, () -> loaded.store(3, 1, 1, 1));
+    }
+
+    @Test
+    void loadRejectsOtherFiles() throws IOException {
+        Path file = dir.resolve("table.tt");
+        new TranspositionTable(1).save(file);
+        byte[] bytes = Files.readAllBytes(file);
+
+        Path truncated = dir.resolve("truncated.tt");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> TranspositionTable.load(truncated));
+
+        Path other = dir.resolve("other.tt");
+        bytes[0] = 'X';
+        Files.write(other, bytes);
+        assertThrows(IOException.class, () -> TranspositionTable.load(other));
+    }
+
+    //Keys the table puts in the same bucket as key 0, by the table's own Fibonacci hashing
+    private static long[] sameBucket(int count) {
+        long[] keys = new long[count];
+        int found = 0;
+        for (long key = 0; found < count; key++) {
+            if ((key * 0x9E3779B97F4A7C15L) >>> (64 - BUCKET_BITS) == 0) keys[found++] = key;
+        }
+        return keys;
+    }
+}
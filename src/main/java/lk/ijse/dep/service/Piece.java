@@ -1,5 +0,0 @@
-package lk.ijse.dep.service;
-
-public enum Piece {
-    GREEN,BLUE,EMPTY
-}
@@ -0,0 +1,49 @@
+package lk.ijse.dep;
+
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import lk.ijse.dep.service.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+public class AppInitializer extends Application {
+
+    //Primes the AI search while the player is typing their name, -Dconnect4.warmup=false turns it off
+    private static final boolean WARMUP_ENABLED = !"false".equals(System.getProperty("connect4.warmup"));
+
+    //Set by the cds build profile: start, warm up and exit so the JVM can dump the class data sharing archive
+    private static final boolean CDS_DUMP = Boolean.getBoolean("connect4.cds.dump");
+
+    private final Warmup warmup = new Warmup();
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+
+    @Override
+    public void start(Stage primaryStage) throws IOException {
+        primaryStage.setScene(new Scene(FXMLLoader.load(getClass().getResource("/view/CreatePlayer.fxml"))));
+        primaryStage.setResizable(false);
+        primaryStage.setTitle("Connect 4 Game - Create Player");
+        primaryStage.show();
+        primaryStage.centerOnScreen();
+        if (WARMUP_ENABLED || CDS_DUMP) warmup.start();
+        //The Create Player window is hidden once the board is shown, from then on the AI plays for real
+        primaryStage.setOnHidden(event -> warmup.stop());
+        if (CDS_DUMP) {
+            Thread exit = new Thread(() -> {
+                try {
+                    warmup.await(1, TimeUnit.MINUTES);
+                } catch (InterruptedException ignored) {
+                }
+                Platform.exit();
+            }, "cds-dump");
+            exit.setDaemon(true);
+            exit.start();
+        }
+    }
+}
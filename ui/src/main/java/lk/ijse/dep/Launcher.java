@@ -0,0 +1,52 @@
+package lk.ijse.dep;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+public class Launcher {
+
+    //--jfr[=file] keeps a flight recording of the last minutes of the session, written to the file on exit
+    private static final String JFR_FLAG = "--jfr";
+    private static final Duration JFR_MAX_AGE = Duration.ofMinutes(10);
+    private static final long JFR_MAX_SIZE = 100L * 1024 * 1024;
+
+    public static void main(String[] args) throws IOException, ParseException {
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals(JFR_FLAG)) {
+                startRecording(Paths.get(System.getProperty("user.home"), ".connect4", "connect4.jfr"));
+            } else if (arg.startsWith(JFR_FLAG + "=")) {
+                startRecording(Paths.get(arg.substring(JFR_FLAG.length() + 1)));
+            } else {
+                appArgs.add(arg);
+            }
+        }
+        AppInitializer.main(appArgs.toArray(new String[0]));
+    }
+
+    /* Rolling recording with the default JFR settings, GC pauses included, and the game's own events (AI moves,
+       searches and their MCTS phases, board updates). Older data is dropped past JFR_MAX_AGE or JFR_MAX_SIZE
+     */
+    private static void startRecording(Path file) throws IOException, ParseException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Recording recording = new Recording(Configuration.getConfiguration("default"));
+        recording.setName("connect4");
+        recording.setToDisk(true);
+        recording.setMaxAge(JFR_MAX_AGE);
+        recording.setMaxSize(JFR_MAX_SIZE);
+        recording.setDestination(file);
+        recording.setDumpOnExit(true);
+        recording.start();
+        System.err.println("Flight recording to " + file + " on exit");
+    }
+}
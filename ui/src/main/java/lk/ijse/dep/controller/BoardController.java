@@ -0,0 +1,317 @@
+package lk.ijse.dep.controller;
+
+import com.jfoenix.controls.JFXButton;
+import com.jfoenix.controls.JFXToggleButton;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.animation.TranslateTransition;
+import javafx.application.Platform;
+import javafx.css.PseudoClass;
+import javafx.event.ActionEvent;
+import javafx.scene.Group;
+import javafx.scene.control.Label;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.VBox;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Rectangle;
+import javafx.util.Duration;
+import lk.ijse.dep.record.GameRecordWriter;
+import lk.ijse.dep.service.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+public class BoardController implements BoardUI {
+
+    private static final int RADIUS = 42;
+    //Set on grpCols while the human can pick a column
+    private static final PseudoClass HUMAN_TURN = PseudoClass.getPseudoClass("human-turn");
+
+    //Where finished games are appended, set -Dconnect4.record=none to turn recording off
+    private static final String RECORD_FILE = System.getProperty("connect4.record",
+            Paths.get(System.getProperty("user.home"), ".connect4", "games.c4r").toString());
+
+    public Label lblStatus;
+    public Group grpCols;
+    public AnchorPane root;
+    public Pane pneOver;
+    public JFXButton btnPlayAgain;
+    public JFXToggleButton tglAnalysis;
+    public HBox hbxAnalysis;
+
+    private String playerName;
+    private boolean isAiPlaying;
+    private boolean isGameOver;
+
+    private Board board;
+    private Player humanPlayer;
+    private Player aiPlayer;
+
+    //Analysis mode: the search keeps running on the current position and each column shows its visit share and win rate
+    private AiPlayer.Analyzer analyzer;
+    private final Label[] lblAnalysis = new Label[Board.NUM_OF_COLS];
+
+    private GameRecordWriter recorder;
+
+    //Board nodes, all made once in createBoardNodes and reused by every game
+    private final VBox[] columns = new VBox[Board.NUM_OF_COLS];
+    private final Circle[][] circles = new Circle[Board.NUM_OF_COLS][Board.NUM_OF_ROWS];
+    private final TranslateTransition[][] drops = new TranslateTransition[Board.NUM_OF_COLS][Board.NUM_OF_ROWS];
+    private final int[] heights = new int[Board.NUM_OF_COLS];
+    //Column of the AI's last move, highlighted until the human's turn starts
+    private int aiCol = -1;
+    private Timeline aiTurn;
+    private Timeline humanTurn;
+    private Rectangle rectOverlay;
+
+    private void initializeGame() {
+        //Stops the previous AI from pondering over the old game
+        if (aiPlayer != null) aiPlayer.dispose();
+        board = new BoardImpl(this);
+        humanPlayer = new HumanPlayer(board);
+        aiPlayer = new AiPlayer(board);
+        //The human always plays first, beginGame also abandons an unfinished game
+        record(recorder -> recorder.beginGame(Piece.BLUE));
+    }
+
+    public void initialize() {
+        openRecorder();
+        initializeGame();
+        createBoardNodes();
+        for (int col = 0; col < lblAnalysis.length; col++) {
+            lblAnalysis[col] = new Label();
+            lblAnalysis[col].setPrefWidth(((VBox) grpCols.getChildren().get(col)).getPrefWidth());
+            lblAnalysis[col].getStyleClass().add("analysis");
+        }
+        hbxAnalysis.getChildren().addAll(lblAnalysis);
+        analyzer = new AiPlayer.Analyzer(new SearchSettings(),
+                (position, visits, winRates) -> Platform.runLater(() -> showAnalysis(position, visits, winRates)));
+        grpCols.getChildren().stream().map(n -> (VBox) n).forEach(vbox -> vbox.setOnMouseClicked(mouseEvent -> colOnClick(vbox)));
+    }
+
+    /* Every node the board needs is made once: a circle per cell, hidden until a piece lands there, with
+       its drop animation, the two turn change timelines and the winning line overlay. The VBoxes lay the
+       circles out from the top, so row r of a column is its child 4 - r.
+     */
+    private void createBoardNodes() {
+        for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+            columns[col] = (VBox) grpCols.getChildren().get(col);
+            for (int row = Board.NUM_OF_ROWS - 1; row >= 0; row--) {
+                Circle circle = new Circle(RADIUS);
+                circle.setVisible(false);
+                columns[col].getChildren().add(circle);
+                circles[col][row] = circle;
+                TranslateTransition drop = new TranslateTransition(Duration.millis(250), circle);
+                drop.setFromY(-50);
+                drop.setToY(0);
+                drops[col][row] = drop;
+            }
+        }
+        grpCols.getStyleClass().add("cols");
+        grpCols.pseudoClassStateChanged(HUMAN_TURN, true);
+
+        KeyFrame waitFrame = new KeyFrame(Duration.millis(300), actionEvent -> {
+            if (!isGameOver) lblStatus.setText("Wait, AI is playing");
+        });
+        KeyFrame aiFrame = new KeyFrame(Duration.seconds(0.5), actionEvent -> {
+            if (!isGameOver) aiPlayer.movePiece(-1);
+        });
+        aiTurn = new Timeline(waitFrame, aiFrame);
+        humanTurn = new Timeline(new KeyFrame(Duration.millis(300), actionEvent -> {
+            if (aiCol != -1) columns[aiCol].getStyleClass().remove("col-ai");
+            aiCol = -1;
+            grpCols.pseudoClassStateChanged(HUMAN_TURN, true);
+        }));
+
+        rectOverlay = new Rectangle();
+        rectOverlay.setId("rectOverlay");
+        rectOverlay.getStyleClass().add("winning-rect");
+        rectOverlay.setVisible(false);
+        root.getChildren().add(rectOverlay);
+    }
+
+    private void colOnClick(VBox col) {
+        if (!isAiPlaying && !isGameOver) humanPlayer.movePiece(grpCols.getChildren().indexOf(col));
+    }
+
+    public void initData(String playerName) {
+        this.playerName = playerName;
+    }
+
+    //Called when the board window is closed
+    public void dispose() {
+        aiPlayer.dispose();
+        analyzer.stop();
+        closeRecorder();
+    }
+
+    private void closeRecorder() {
+        if (recorder == null) return;
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        recorder = null;
+    }
+
+    private void openRecorder() {
+        if (RECORD_FILE.equals("none")) return;
+        Path file = Paths.get(RECORD_FILE);
+        try {
+            recorder = new GameRecordWriter(file);
+        } catch (IOException e) {
+            System.err.println("Game recording is disabled, can't open " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void record(RecordAction action) {
+        if (recorder == null) return;
+        try {
+            action.apply(recorder);
+        } catch (IOException e) {
+            //Recording must never break the game itself, only the recording stops
+            e.printStackTrace();
+            closeRecorder();
+        }
+    }
+
+    @Override
+    public void update(int col, boolean isHuman) {
+        if (isGameOver) return;
+        int row = heights[col];
+        if (row == Board.NUM_OF_ROWS)
+            throw new RuntimeException("Double check your logic, no space available within the column: " + col);
+        BoardUpdateEvent event = new BoardUpdateEvent();
+        event.begin();
+        record(recorder -> recorder.recordMove(col));
+        VBox vCol = columns[col];
+        if (!isHuman) {
+            vCol.getStyleClass().add("col-ai");
+            aiCol = col;
+        }
+        Circle circle = circles[col][row];
+        circle.getStyleClass().setAll(isHuman ? "circle-human" : "circle-ai");
+        circle.setVisible(true);
+        drops[col][row].playFromStart();
+        heights[col]++;
+        if (heights[col] == Board.NUM_OF_ROWS) vCol.getStyleClass().add("col-filled");
+        analyze();
+        lblStatus.getStyleClass().clear();
+        lblStatus.getStyleClass().add(isHuman ? "ai" : "human");
+        if (isHuman) {
+            isAiPlaying = true;
+            grpCols.pseudoClassStateChanged(HUMAN_TURN, false);
+            aiTurn.playFromStart();
+        } else {
+            humanTurn.playFromStart();
+            isAiPlaying = false;
+            lblStatus.setText(playerName + ", it is your turn now!");
+        }
+        event.col = col;
+        event.human = isHuman;
+        event.moveNumber = board.getPosition().moveCount();
+        event.commit();
+    }
+
+    @Override
+    public void notifyWinner(Winner winner) {
+        isGameOver = true;
+        analyzer.stop();
+        record(recorder -> recorder.endGame(winner.getWinningPiece()));
+        lblStatus.getStyleClass().clear();
+        lblStatus.getStyleClass().add("final");
+        switch (winner.getWinningPiece()) {
+            case BLUE:
+                lblStatus.setText(String.format("%s, you have won the game !", playerName));
+                break;
+            case GREEN:
+                lblStatus.setText("Game is over, AI has won the game !");
+                break;
+            case EMPTY:
+                lblStatus.setText("Game is tied !");
+        }
+        if (winner.getWinningPiece() != Piece.EMPTY) {
+            VBox vCol = columns[winner.getCol1()];
+            rectOverlay.setWidth((winner.getCol2() - winner.getCol1() + 1) * vCol.getWidth());
+            rectOverlay.setHeight((winner.getRow2() - winner.getRow1() + 1) * (((RADIUS + 2) * 2)));
+            rectOverlay.setLayoutX(vCol.localToScene(0, 0).getX());
+            rectOverlay.setLayoutY(vCol.localToScene(0, 0).getY() + (4 - winner.getRow2()) * ((RADIUS + 2) * 2));
+            rectOverlay.setVisible(true);
+            rectOverlay.toFront();
+        }
+        pneOver.setVisible(true);
+        pneOver.toFront();
+        Platform.runLater(btnPlayAgain::requestFocus);
+    }
+
+    public void btnPlayAgainOnAction(ActionEvent actionEvent) {
+        //A turn change still pending from the last game must not reach the new one
+        aiTurn.stop();
+        humanTurn.stop();
+        initializeGame();
+        isAiPlaying = false;
+        isGameOver = false;
+        pneOver.setVisible(false);
+        lblStatus.getStyleClass().clear();
+        lblStatus.setText("LET'S PLAY !");
+        //Only the cells and columns the last game touched are reset
+        for (int col = 0; col < columns.length; col++) {
+            if (heights[col] == Board.NUM_OF_ROWS) columns[col].getStyleClass().remove("col-filled");
+            for (int row = 0; row < heights[col]; row++) {
+                drops[col][row].stop();
+                circles[col][row].setVisible(false);
+            }
+            heights[col] = 0;
+        }
+        if (aiCol != -1) columns[aiCol].getStyleClass().remove("col-ai");
+        aiCol = -1;
+        grpCols.pseudoClassStateChanged(HUMAN_TURN, true);
+        rectOverlay.setVisible(false);
+        analyze();
+    }
+
+    public void tglAnalysisOnAction(ActionEvent actionEvent) {
+        hbxAnalysis.setVisible(tglAnalysis.isSelected());
+        if (tglAnalysis.isSelected()) {
+            analyze();
+        } else {
+            analyzer.stop();
+        }
+    }
+
+    //Restarts the analysis on the current position, it picks up the part of its tree that is still relevant
+    private void analyze() {
+        for (Label label : lblAnalysis) label.setText("");
+        if (tglAnalysis.isSelected() && !isGameOver) analyzer.analyze(board.getPosition());
+    }
+
+    private void showAnalysis(Position position, int[] visits, double[] winRates) {
+        //An update still on its way from the analysis of an earlier position
+        if (!position.equals(board.getPosition()) || !tglAnalysis.isSelected()) return;
+        int total = 0;
+        int best = -1;
+        for (int col = 0; col < visits.length; col++) {
+            total += visits[col];
+            if (best == -1 || visits[col] > visits[best]) best = col;
+        }
+        for (int col = 0; col < visits.length; col++) {
+            Label label = lblAnalysis[col];
+            label.getStyleClass().remove("analysis-best");
+            if (Double.isNaN(winRates[col])) {
+                label.setText("");
+                continue;
+            }
+            label.setText(String.format(Locale.ROOT, "%.0f%% \u00b7 %.2f", 100.0 * visits[col] / Math.max(1, total), winRates[col]));
+            if (col == best) label.getStyleClass().add("analysis-best");
+        }
+    }
+
+    private interface RecordAction {
+        void apply(GameRecordWriter recorder) throws IOException;
+    }
+}
@@ -0,0 +1,25 @@
+package lk.ijse.dep.controller;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of {@link BoardController#update(int, boolean)}: a move shown on the board, on the JavaFX thread.
+ */
+@Name("lk.ijse.dep.BoardUpdate")
+@Label("Board Update")
+@Category({"Connect Four", "UI"})
+@Description("A move drawn on the board and the animations it starts")
+final class BoardUpdateEvent extends jdk.jfr.Event {
+
+    @Label("Column")
+    int col;
+
+    @Label("Human")
+    boolean human;
+
+    @Label("Move Number")
+    int moveNumber;
+}
@@ -36,7 +36,9 @@ public class CreatePlayerController {
         Stage stage = new Stage();
         FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/view/Board.fxml"));
         stage.setScene(new Scene(fxmlLoader.load()));
-        ((BoardController)(fxmlLoader.getController())).initData(name);
+        BoardController boardController = fxmlLoader.getController();
+        boardController.initData(name);
+        stage.setOnHidden(event -> boardController.dispose());
         stage.setResizable(false);
         stage.setTitle("Connect 4 Game - Player: " + name);
         stage.show();
@@ -0,0 +1,194 @@
+package lk.ijse.dep.controller;
+
+import javafx.application.Platform;
+import javafx.css.PseudoClass;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.layout.VBox;
+import lk.ijse.dep.record.GameRecord;
+import lk.ijse.dep.record.GameRecordReader;
+import lk.ijse.dep.service.Board;
+import lk.ijse.dep.service.Piece;
+import lk.ijse.dep.service.Position;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plays whole games against the AI on the real board view, on the headless glass platform: after every game
+ * the pooled circles must show the game that was recorded, and Play Again must clear them for the next one
+ * without making new nodes.
+ */
+class BoardControllerTest {
+
+    private static final PseudoClass HUMAN_TURN = PseudoClass.getPseudoClass("human-turn");
+    //A move of the AI takes its turn change timeline and a search
+    private static final long MOVE_TIMEOUT_MILLIS = 30_000;
+
+    @TempDir
+    static Path dir;
+
+    private static Parent root;
+    private static BoardController controller;
+
+    @BeforeAll
+    static void showBoard() throws Exception {
+        System.setProperty("connect4.record", dir.resolve("games.c4r").toString());
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        assertTrue(started.await(30, TimeUnit.SECONDS));
+        fx(() -> {
+            FXMLLoader loader = new FXMLLoader(BoardControllerTest.class.getResource("/view/Board.fxml"));
+            root = loader.load();
+            controller = loader.getController();
+            controller.initData("Tester");
+            //Never shown: the timelines and the AI run all the same, and no text has to be laid out
+            new Scene(root);
+            return null;
+        });
+    }
+
+    @AfterAll
+    static void closeBoard() throws Exception {
+        fx(() -> {
+            controller.dispose();
+            return null;
+        });
+    }
+
+    @Test
+    void gamesReuseTheBoardNodes() throws Exception {
+        List<Node> nodes = fx(BoardControllerTest::boardNodes);
+        assertEquals(Board.NUM_OF_COLS * Board.NUM_OF_ROWS, nodes.size());
+        Node overlay = root.lookup("#rectOverlay");
+        SplittableRandom random = new SplittableRandom(7);
+        for (int game = 1; game <= 3; game++) {
+            play(random);
+            GameRecord record = recordedGame(game);
+            Position position = Position.EMPTY;
+            for (int i = 0; i < record.getMoveCount(); i++) position = position.withMove(record.getMove(i));
+            Position shown = position;
+            assertEquals(record.getWinner(), shown.winner());
+            fx(() -> {
+                assertShows(shown);
+                assertEquals(shown.winner() != Piece.EMPTY, overlay.isVisible());
+                return null;
+            });
+
+            fx(() -> {
+                controller.btnPlayAgainOnAction(null);
+                return null;
+            });
+            fx(() -> {
+                assertShows(Position.EMPTY);
+                assertFalse(overlay.isVisible());
+                assertFalse(controller.pneOver.isVisible());
+                assertTrue(controller.grpCols.getPseudoClassStates().contains(HUMAN_TURN));
+                List<Node> after = boardNodes();
+                for (int i = 0; i < nodes.size(); i++) assertSame(nodes.get(i), after.get(i));
+                return null;
+            });
+        }
+    }
+
+    //Clicks random columns that aren't full until the game is over
+    private static void play(SplittableRandom random) throws Exception {
+        while (!fx(() -> controller.pneOver.isVisible())) {
+            int pieces = fx(BoardControllerTest::visiblePieces);
+            int col;
+            do {
+                col = random.nextInt(Board.NUM_OF_COLS);
+            } while (isFull(col));
+            int chosen = col;
+            fx(() -> {
+                column(chosen).getOnMouseClicked().handle(null);
+                return null;
+            });
+            //The human's piece, then the AI's reply unless the game is over
+            long deadline = System.currentTimeMillis() + MOVE_TIMEOUT_MILLIS;
+            while (fx(BoardControllerTest::visiblePieces) < pieces + 2 && !fx(() -> controller.pneOver.isVisible())) {
+                assertTrue(System.currentTimeMillis() < deadline, "No reply from the AI");
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    private static boolean isFull(int col) throws Exception {
+        return fx(() -> column(col).getChildren().stream().allMatch(Node::isVisible));
+    }
+
+    private static GameRecord recordedGame(int number) throws IOException {
+        List<GameRecord> games = new ArrayList<>();
+        try (GameRecordReader reader = new GameRecordReader(dir.resolve("games.c4r"))) {
+            GameRecord game;
+            while ((game = reader.read()) != null) games.add(game);
+        }
+        assertEquals(number, games.size());
+        GameRecord game = games.get(number - 1);
+        assertTrue(game.isFinished());
+        assertEquals(Piece.BLUE, game.getFirstPiece());
+        return game;
+    }
+
+    //Row r of a column is its child 4 - r
+    private static void assertShows(Position position) {
+        for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+            VBox column = column(col);
+            assertEquals(Board.NUM_OF_ROWS, column.getChildren().size());
+            for (int row = 0; row < Board.NUM_OF_ROWS; row++) {
+                Node circle = column.getChildren().get(Board.NUM_OF_ROWS - 1 - row);
+                Piece piece = position.pieceAt(col, row);
+                String cell = "cell " + col + "," + row;
+                assertEquals(piece != Piece.EMPTY, circle.isVisible(), cell);
+                if (piece == Piece.BLUE) assertTrue(circle.getStyleClass().contains("circle-human"), cell);
+                if (piece == Piece.GREEN) assertTrue(circle.getStyleClass().contains("circle-ai"), cell);
+            }
+            assertEquals(position.height(col) == Board.NUM_OF_ROWS, column.getStyleClass().contains("col-filled"), "column " + col);
+        }
+    }
+
+    private static int visiblePieces() {
+        return (int) boardNodes().stream().filter(Node::isVisible).count();
+    }
+
+    private static List<Node> boardNodes() {
+        List<Node> nodes = new ArrayList<>();
+        for (int col = 0; col < Board.NUM_OF_COLS; col++) nodes.addAll(column(col).getChildren());
+        return nodes;
+    }
+
+    private static VBox column(int col) {
+        return (VBox) controller.grpCols.getChildren().get(col);
+    }
+
+    //Runs on the JavaFX thread and waits for the result
+    private static <T> T fx(Callable<T> action) throws Exception {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                result.complete(action.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result.get(MOVE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+}
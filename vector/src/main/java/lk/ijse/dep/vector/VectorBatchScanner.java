@@ -0,0 +1,89 @@
+package lk.ijse.dep.vector;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import lk.ijse.dep.service.BatchScanner;
+import lk.ijse.dep.service.Board;
+import lk.ijse.dep.service.Piece;
+import lk.ijse.dep.service.Position;
+import lk.ijse.dep.service.ScalarBatchScanner;
+
+/**
+ * {@link BatchScanner} on the incubating Vector API: as many positions as the preferred vector shape
+ * holds longs (4 with AVX2, 8 with AVX-512) go through the same shifts and masks as the scalar code
+ * at once. The positions left over at the end go to {@link ScalarBatchScanner}.
+ *
+ * Loaded by name from {@link BatchScanner#getInstance()}, so the engine doesn't depend on this module.
+ */
+public class VectorBatchScanner extends BatchScanner {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    //The results are narrowed to bytes, 8 byte lanes always hold every long lane
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_64;
+    private static final int LANES = LONGS.length();
+    private static final VectorMask<Byte> STORE = BYTES.indexInRange(0, LANES);
+
+    public VectorBatchScanner() {
+        //Vectors of one lane would only be a slower scalar loop
+        if (LANES < 2) throw new UnsupportedOperationException("No vector support for longs on this machine");
+    }
+
+    @Override
+    public void status(long[] blue, long[] green, int count, byte[] status) {
+        int bound = LONGS.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            LongVector b = LongVector.fromArray(LONGS, blue, i);
+            LongVector g = LongVector.fromArray(LONGS, green, i);
+            VectorMask<Long> full = b.or(g).compare(VectorOperators.EQ, ScalarBatchScanner.FULL);
+            //Lowest precedence first, BLUE's line is the one that counts when both have one
+            LongVector result = LongVector.zero(LONGS)
+                    .blend(BatchScanner.DRAW, full)
+                    .blend(Piece.GREEN_CODE, hasFour(g))
+                    .blend(Piece.BLUE_CODE, hasFour(b));
+            store(result, status, i);
+        }
+        ScalarBatchScanner.status(blue, green, i, count, status);
+    }
+
+    @Override
+    public void legalMoves(long[] blue, long[] green, int count, byte[] legal) {
+        int bound = LONGS.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            LongVector free = LongVector.fromArray(LONGS, blue, i).or(LongVector.fromArray(LONGS, green, i))
+                    .not().and(ScalarBatchScanner.FULL);
+            LongVector free2 = free.or(free.lanewise(VectorOperators.LSHR, 1));
+            free = free2.or(free2.lanewise(VectorOperators.LSHR, 2)).or(free.lanewise(VectorOperators.LSHR, 4))
+                    .and(ScalarBatchScanner.BOTTOM);
+            //Bottom bit of column col down to bit col
+            LongVector columns = LongVector.zero(LONGS);
+            for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+                columns = columns.or(free.lanewise(VectorOperators.LSHR, col * (Position.COLUMN_BITS - 1)).and(1L << col));
+            }
+            store(columns, legal, i);
+        }
+        ScalarBatchScanner.legalMoves(blue, green, i, count, legal);
+    }
+
+    private static VectorMask<Long> hasFour(LongVector bits) {
+        LongVector m = bits.and(bits.lanewise(VectorOperators.LSHR, 1));
+        LongVector vertical = m.and(m.lanewise(VectorOperators.LSHR, 2));
+        m = bits.and(bits.lanewise(VectorOperators.LSHR, Position.COLUMN_BITS));
+        LongVector horizontal = m.and(m.lanewise(VectorOperators.LSHR, 2 * Position.COLUMN_BITS));
+        return vertical.or(horizontal).compare(VectorOperators.NE, 0);
+    }
+
+    private static void store(LongVector values, byte[] out, int offset) {
+        ByteVector bytes = (ByteVector) values.convertShape(VectorOperators.L2B, BYTES, 0);
+        bytes.intoArray(out, offset, STORE);
+    }
+
+    @Override
+    public String toString() {
+        return "vector " + LONGS;
+    }
+}
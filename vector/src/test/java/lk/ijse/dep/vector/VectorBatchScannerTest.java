@@ -0,0 +1,156 @@
+package lk.ijse.dep.vector;
+
+import jdk.incubator.vector.LongVector;
+import lk.ijse.dep.service.BatchScanner;
+import lk.ijse.dep.service.Board;
+import lk.ijse.dep.service.Piece;
+import lk.ijse.dep.service.Position;
+import lk.ijse.dep.service.ScalarBatchScanner;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * {@link VectorBatchScanner} against {@link ScalarBatchScanner}, which works out every position alone.
+ */
+class VectorBatchScannerTest {
+
+    private static final int LANES = LongVector.SPECIES_PREFERRED.length();
+    //Written where the scanners must not write
+    private static final byte UNTOUCHED = 0x55;
+
+    private final BatchScanner scalar = new ScalarBatchScanner();
+
+    @BeforeAll
+    static void vectorsOfLongs() {
+        assumeTrue(LANES >= 2, "No vector support for longs on this machine");
+    }
+
+    @Test
+    void loadedWhenTheModuleIsAdded() {
+        assertInstanceOf(VectorBatchScanner.class, BatchScanner.getInstance());
+    }
+
+    @Test
+    void gamesMatchTheScalarScanner() {
+        SplittableRandom random = new SplittableRandom(1);
+        List<Position> positions = new ArrayList<>();
+        for (int game = 0; game < 300; game++) {
+            Position position = Position.EMPTY;
+            positions.add(position);
+            while (!position.isTerminal()) {
+                int col = random.nextInt(Board.NUM_OF_COLS);
+                if (!position.isLegalMove(col)) continue;
+                position = position.withMove(col);
+                positions.add(position);
+            }
+        }
+        long[] blue = bits(positions, Piece.BLUE);
+        long[] green = bits(positions, Piece.GREEN);
+        byte[] status = scan(new VectorBatchScanner(), blue, green, positions.size(), true);
+        byte[] legal = scan(new VectorBatchScanner(), blue, green, positions.size(), false);
+        for (int i = 0; i < positions.size(); i++) {
+            Position position = positions.get(i);
+            byte expected = position.winner() != Piece.EMPTY ? position.winner().code()
+                    : position.hasLegalMoves() ? BatchScanner.ONGOING : BatchScanner.DRAW;
+            assertEquals(expected, status[i], position.toString());
+            assertEquals(position.legalMoves(), legal[i], position.toString());
+        }
+        assertSameAsScalar(blue, green, positions.size());
+    }
+
+    //Cells set without gravity, both sides may have a line and columns may have holes
+    @Test
+    void randomGridsMatchTheScalarScanner() {
+        Piece[] pieces = {Piece.EMPTY, Piece.BLUE, Piece.GREEN};
+        SplittableRandom random = new SplittableRandom(2);
+        List<Position> positions = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Position position = Position.EMPTY;
+            for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+                for (int row = 0; row < Board.NUM_OF_ROWS; row++) {
+                    position = position.with(col, row, pieces[random.nextInt(pieces.length)]);
+                }
+            }
+            positions.add(position);
+        }
+        assertSameAsScalar(bits(positions, Piece.BLUE), bits(positions, Piece.GREEN), positions.size());
+    }
+
+    /*
+     * Lines ending in the top row, next to the empty sentinel bit of the column, and three at the top of
+     * a column with one at the bottom of the next, which are four bits apart from a line only by the sentinel.
+     */
+    @Test
+    void linesNextToTheSentinelRow() {
+        int top = Board.NUM_OF_ROWS - 1;
+        List<Position> positions = new ArrayList<>();
+        for (Piece piece : new Piece[]{Piece.BLUE, Piece.GREEN}) {
+            for (int col = 0; col < Board.NUM_OF_COLS; col++) {
+                Position position = Position.EMPTY;
+                for (int row = top - 3; row <= top; row++) position = position.with(col, row, piece);
+                positions.add(position);
+            }
+            for (int col = 0; col + 3 < Board.NUM_OF_COLS; col++) {
+                Position position = Position.EMPTY;
+                for (int c = col; c <= col + 3; c++) position = position.with(c, top, piece);
+                positions.add(position);
+            }
+            for (int col = 0; col + 1 < Board.NUM_OF_COLS; col++) {
+                Position position = Position.EMPTY.with(col + 1, 0, piece);
+                for (int row = top - 2; row <= top; row++) position = position.with(col, row, piece);
+                positions.add(position);
+            }
+        }
+        long[] blue = bits(positions, Piece.BLUE);
+        long[] green = bits(positions, Piece.GREEN);
+        byte[] status = scan(new VectorBatchScanner(), blue, green, positions.size(), true);
+        for (int i = 0; i < positions.size(); i++) {
+            Piece winner = positions.get(i).winner();
+            assertEquals(winner == Piece.EMPTY ? BatchScanner.ONGOING : winner.code(), status[i], positions.get(i).toString());
+        }
+        assertSameAsScalar(blue, green, positions.size());
+    }
+
+    /*
+     * Every count from none to a few vectors and a half, through the vectors and the scalar loop over the
+     * positions left at the end. Nothing past the count is written.
+     */
+    private void assertSameAsScalar(long[] blue, long[] green, int size) {
+        BatchScanner vector = new VectorBatchScanner();
+        int counts = Math.min(size, 4 * LANES + LANES / 2);
+        for (int count = 0; count <= counts; count++) {
+            assertSameAsScalar(vector, blue, green, count);
+        }
+        assertSameAsScalar(vector, blue, green, size);
+    }
+
+    private void assertSameAsScalar(BatchScanner vector, long[] blue, long[] green, int count) {
+        assertArrayEquals(scan(scalar, blue, green, count, true), scan(vector, blue, green, count, true), "status of " + count);
+        assertArrayEquals(scan(scalar, blue, green, count, false), scan(vector, blue, green, count, false), "legal moves of " + count);
+    }
+
+    private static byte[] scan(BatchScanner scanner, long[] blue, long[] green, int count, boolean status) {
+        byte[] result = new byte[blue.length];
+        Arrays.fill(result, UNTOUCHED);
+        if (status) scanner.status(blue, green, count, result);
+        else scanner.legalMoves(blue, green, count, result);
+        for (int i = count; i < result.length; i++) {
+            assertEquals(UNTOUCHED, result[i], "written past " + count + " at " + i);
+        }
+        return result;
+    }
+
+    private static long[] bits(List<Position> positions, Piece piece) {
+        return positions.stream().mapToLong(position -> position.getBits(piece)).toArray();
+    }
+}